@@ -2,12 +2,12 @@ package ru.yandex.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.yandex.practicum.shareit.client.BaseClient;
+import ru.yandex.practicum.shareit.client.ResponseCache;
 
 import java.util.Map;
 
@@ -15,32 +15,36 @@ import java.util.Map;
 public class BookingClient extends BaseClient {
 
     @Autowired
-    public BookingClient(@Value("${shareit_server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/bookings"))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(
+            @Value("${shareit_server.url}") String serverUrl,
+            @Value("${shareit_server.passthrough}") boolean passthrough,
+            WebClient shareItServerWebClient,
+            ResponseCache responseCache
+    ) {
+        super(shareItServerWebClient, serverUrl + "/bookings", passthrough, responseCache);
     }
 
-    public ResponseEntity<Object> getBookingsByUserId(Long userId, Map<String, Object> parameters) {
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookingsByUserId(Long userId, Map<String, Object> parameters) {
+        return get(withCursor("?state={state}&from={from}&size={size}", parameters), userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsByItemOwnerId(Long userId, Map<String, Object> parameters) {
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookingsByItemOwnerId(Long userId, Map<String, Object> parameters) {
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", parameters), userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingById(Long userId, Long id) {
+    public Mono<ResponseEntity<Object>> getBookingById(Long userId, Long id) {
         return get("/" + id, userId);
     }
 
-    public ResponseEntity<Object> createBooking(Long userId, BookingForCreateDto bookingDto) {
+    public Mono<ResponseEntity<Object>> createBooking(Long userId, BookingForCreateDto bookingDto) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> approveBookingById(Long userId, Long id, Map<String, Object> parameters) {
+    public Mono<ResponseEntity<Object>> approveBookingById(Long userId, Long id, Map<String, Object> parameters) {
         return patch("/" + id + "?approved={approved}", userId, parameters);
     }
+
+    private String withCursor(String path, Map<String, Object> parameters) {
+        return parameters.containsKey("cursor") ? path + "&cursor={cursor}" : path;
+    }
 }
@@ -15,10 +15,12 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.HashMap;
 import java.util.Map;
 
 @Controller
@@ -32,37 +34,45 @@ public class BookingController {
     private final BookingClient client;
 
     @GetMapping
-    public ResponseEntity<Object> getBookingsByUserId(
+    public Mono<ResponseEntity<Object>> getBookingsByUserId(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "20") @Positive Integer size
+            @RequestParam(defaultValue = "20") @Positive Integer size,
+            @RequestParam(required = false) String cursor
     ) {
-        Map<String, Object> parameters = Map.of(
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
         return client.getBookingsByUserId(userId, parameters);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByItemOwnerId(
+    public Mono<ResponseEntity<Object>> getBookingsByItemOwnerId(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "20") @Positive Integer size
+            @RequestParam(defaultValue = "20") @Positive Integer size,
+            @RequestParam(required = false) String cursor
     ) {
-        Map<String, Object> parameters = Map.of(
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
         return client.getBookingsByItemOwnerId(userId, parameters);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getBookingById(
+    public Mono<ResponseEntity<Object>> getBookingById(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @PathVariable Long id
     ) {
@@ -71,7 +81,7 @@ public class BookingController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createBooking(
+    public Mono<ResponseEntity<Object>> createBooking(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @RequestBody @Valid BookingForCreateDto bookingDto
     ) {
@@ -80,7 +90,7 @@ public class BookingController {
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> approveBookingById(
+    public Mono<ResponseEntity<Object>> approveBookingById(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @PathVariable Long id,
             @RequestParam Boolean approved
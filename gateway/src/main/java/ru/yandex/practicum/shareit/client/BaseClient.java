@@ -1,115 +1,205 @@
 package ru.yandex.practicum.shareit.client;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpEntity;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpRequest;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-
-@RequiredArgsConstructor
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proxies requests to the ShareIt server without blocking the calling thread
+ * Responses are completed on the threads of the shared connection pool, see ClientConfig
+ * In passthrough mode response bodies are forwarded as bytes instead of being parsed and written again
+ */
 public class BaseClient {
 
-    private final RestTemplate restTemplate;
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "content-length"
+    );
 
-    protected ResponseEntity<Object> get(String path) {
+    private final WebClient webClient;
+    private final UriBuilderFactory uriBuilderFactory;
+    private final boolean passthrough;
+    private final ResponseCache responseCache;
+    private final Map<String, Mono<ResponseEntity<Object>>> inFlightGets = new ConcurrentHashMap<>();
+
+    public BaseClient(WebClient webClient, String baseUrl, boolean passthrough, ResponseCache responseCache) {
+        this.webClient = webClient.mutate().baseUrl(baseUrl).build();
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(baseUrl);
+        this.passthrough = passthrough;
+        this.responseCache = responseCache;
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Map<String, Object> parameters) {
         return get(path, null, parameters);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    /**
+     * Concurrent identical GETs share one call to the server and all get its response
+     * The key contains the ResponseCache generation,
+     * so a GET sent after a write ended does not join a call started before it
+     */
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return Mono.defer(() -> {
+            String key = HttpMethod.GET + " " + requestKey(path, userId, parameters)
+                    + " #" + responseCache.getGeneration();
+
+            return inFlightGets.computeIfAbsent(key, k ->
+                    makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null)
+                            .doFinally(signal -> inFlightGets.remove(k))
+                            .share()
+            );
+        });
+    }
+
+    /**
+     * Same as get, but the response may come from the ResponseCache
+     * The key is the expanded URI and the user id if it is sent, as the response may depend on it
+     */
+    protected Mono<ResponseEntity<Object>> getCached(
+            String path, @Nullable Long userId, @Nullable Map<String, Object> parameters
+    ) {
+        return responseCache.get(requestKey(path, userId, parameters), () -> get(path, userId, parameters));
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(
+    protected <T> Mono<ResponseEntity<Object>> post(
             String path, Long userId, @Nullable Map<String, Object> parameters, T body
     ) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(
+    protected <T> Mono<ResponseEntity<Object>> put(
             String path, long userId, @Nullable Map<String, Object> parameters, T body
     ) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected ResponseEntity<Object> patch(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected ResponseEntity<Object> patch(String path, long userId, Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> patch(String path, long userId, Map<String, Object> parameters) {
         return patch(path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(
+    protected <T> Mono<ResponseEntity<Object>> patch(
             String path, Long userId, @Nullable Map<String, Object> parameters, T body
     ) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(
+    /**
+     * Streams the body to the server as it is read
+     * The blocking reads run on the bounded elastic scheduler, not on the connection pool threads
+     */
+    protected Mono<ResponseEntity<Object>> post(String path, long userId, MediaType contentType, InputStream body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setContentType(contentType);
+
+        Flux<DataBuffer> content = DataBufferUtils
+                .readInputStream(() -> body, DefaultDataBufferFactory.sharedInstance, STREAM_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+
+        return sendRequest(HttpMethod.POST, path, null, headers, BodyInserters.fromDataBuffers(content));
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(
             HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body
     ) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        BodyInserter<?, ? super ClientHttpRequest> inserter = body != null
+                ? BodyInserters.fromValue(body)
+                : BodyInserters.empty();
 
-        ResponseEntity<Object> serverResponse;
+        return sendRequest(method, path, parameters, defaultHeaders(userId), inserter);
+    }
 
-        try {
-            if (parameters != null) {
-                serverResponse = restTemplate.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                serverResponse = restTemplate.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
+    private Mono<ResponseEntity<Object>> sendRequest(
+            HttpMethod method,
+            String path,
+            @Nullable Map<String, Object> parameters,
+            HttpHeaders headers,
+            BodyInserter<?, ? super ClientHttpRequest> body
+    ) {
+        WebClient.RequestBodySpec request = parameters != null
+                ? webClient.method(method).uri(path, parameters)
+                : webClient.method(method).uri(path);
+
+        Mono<ResponseEntity<Object>> response = request
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .body(body)
+                .exchangeToMono(passthrough ? this::passResponseThrough : this::prepareGatewayResponse);
+
+        return method == HttpMethod.GET ? response : responseCache.invalidateAfter(response);
+    }
 
-        return prepareGatewayResponse(serverResponse);
+    /**
+     * Expanded URI and the user id if it is sent
+     */
+    private String requestKey(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
+        return userId != null ? uri + " " + userId : uri.toString();
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -124,17 +214,35 @@ public class BaseClient {
         return headers;
     }
 
-    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        if (response.statusCode().is2xxSuccessful()) {
+            return response.toEntity(Object.class);
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        return response.toEntity(byte[].class)
+                .map(entity -> ResponseEntity.status(entity.getStatusCode()).body(entity.getBody()));
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
+    private Mono<ResponseEntity<Object>> passResponseThrough(ClientResponse response) {
+        return response.toEntity(byte[].class)
+                .map(entity -> ResponseEntity.status(entity.getStatusCode())
+                        .headers(forwardedHeaders(entity.getHeaders()))
+                        .body(entity.getBody()));
+    }
+
+    /**
+     * Headers of the server response without the ones describing the server connection,
+     * the gateway connection gets its own
+     */
+    private HttpHeaders forwardedHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
 
-        return responseBuilder.build();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+
+        return headers;
     }
 }
@@ -0,0 +1,50 @@
+package ru.yandex.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and WebClient shared by all clients of the ShareIt server
+ */
+@Configuration
+public class ClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(
+            @Value("${shareit_server.pool.max-connections}") int maxConnections,
+            @Value("${shareit_server.pool.pending-acquire-max-count}") int pendingAcquireMaxCount,
+            @Value("${shareit_server.pool.pending-acquire-timeout}") Duration pendingAcquireTimeout,
+            @Value("${shareit_server.pool.max-idle-time}") Duration maxIdleTime
+    ) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .build();
+    }
+
+    @Bean
+    public WebClient shareItServerWebClient(
+            WebClient.Builder builder,
+            ConnectionProvider shareItServerConnectionProvider,
+            @Value("${shareit_server.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit_server.response-timeout}") Duration responseTimeout
+    ) {
+        HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
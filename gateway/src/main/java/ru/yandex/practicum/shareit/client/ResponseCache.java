@@ -0,0 +1,92 @@
+package ru.yandex.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of successful server responses to GET requests, shared by all clients
+ * Every write sent through a client drops the whole cache, entries also expire after the ttl
+ * Hits, misses and evictions are exported as the cache.* metrics of the gatewayResponses cache
+ */
+@Component
+public class ResponseCache {
+
+    private final Cache<String, ResponseEntity<Object>> cache;
+
+    /**
+     * Incremented by every write, a response is not cached if a write completed while it was loaded
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(
+            @Value("${shareit_server.cache.maximum-size}") long maximumSize,
+            @Value("${shareit_server.cache.ttl}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponses");
+    }
+
+    /**
+     * Returns the cached response or subscribes to the loader and caches its response if it is successful
+     *
+     * @param key
+     * @param loader
+     * @return response
+     */
+    public Mono<ResponseEntity<Object>> get(String key, Supplier<Mono<ResponseEntity<Object>>> loader) {
+        return Mono.defer(() -> {
+            ResponseEntity<Object> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+
+            long loadedGeneration = generation.get();
+            return loader.get().doOnNext(response -> {
+                if (response.getStatusCode().is2xxSuccessful() && generation.get() == loadedGeneration) {
+                    cache.put(key, response);
+                }
+            });
+        });
+    }
+
+    /**
+     * Drops the cache when the write ends, before its response is passed on
+     *
+     * @param write
+     * @return write response
+     */
+    public Mono<ResponseEntity<Object>> invalidateAfter(Mono<ResponseEntity<Object>> write) {
+        return write
+                .doOnSuccess(response -> invalidateAll())
+                .doOnError(e -> invalidateAll())
+                .doOnCancel(this::invalidateAll);
+    }
+
+    /**
+     * Number of writes sent through the clients so far
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
@@ -2,49 +2,63 @@ package ru.yandex.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.yandex.practicum.shareit.client.BaseClient;
+import ru.yandex.practicum.shareit.client.ResponseCache;
 
+import java.io.InputStream;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
 
     @Autowired
-    public ItemClient(@Value("${shareit_server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/items"))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(
+            @Value("${shareit_server.url}") String serverUrl,
+            @Value("${shareit_server.passthrough}") boolean passthrough,
+            WebClient shareItServerWebClient,
+            ResponseCache responseCache
+    ) {
+        super(shareItServerWebClient, serverUrl + "/items", passthrough, responseCache);
     }
 
-    public ResponseEntity<Object> getItemsByUserId(Long userId, Map<String, Object> parameters) {
+    public Mono<ResponseEntity<Object>> getItemsByUserId(Long userId, Map<String, Object> parameters) {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemById(Long userId, Long id) {
-        return get("/" + id, userId);
+    public Mono<ResponseEntity<Object>> getItemById(Long userId, Long id) {
+        return getCached("/" + id, userId, null);
     }
 
-    public ResponseEntity<Object> createItem(Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItemById(Long userId, Long id, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> importItems(Long userId, MediaType contentType, InputStream body) {
+        return post("/bulk", userId, contentType, body);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItemById(Long userId, Long id, ItemDto itemDto) {
         return patch("/" + id, userId, itemDto);
     }
 
-    public ResponseEntity<Object> searchItems(Map<String, Object> parameters) {
-        return get("/search?text={text}&from={from}&size={size}", parameters);
+    public Mono<ResponseEntity<Object>> searchItems(Map<String, Object> parameters) {
+        return getCached("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getCommentsByItemId(Long id, Map<String, Object> parameters) {
+        return getCached(withCursor("/" + id + "/comments?from={from}&size={size}", parameters), null, parameters);
     }
 
-    public ResponseEntity<Object> createComment(Long userId, Long id, CommentForCreateDto commentDto) {
+    public Mono<ResponseEntity<Object>> createComment(Long userId, Long id, CommentForCreateDto commentDto) {
         return post("/" + id + "/comment", userId, commentDto);
     }
+
+    private String withCursor(String path, Map<String, Object> parameters) {
+        return parameters.containsKey("cursor") ? path + "&cursor={cursor}" : path;
+    }
 }
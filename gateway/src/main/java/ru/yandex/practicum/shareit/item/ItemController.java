@@ -3,6 +3,7 @@ package ru.yandex.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -15,12 +16,16 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import reactor.core.publisher.Mono;
 import ru.yandex.practicum.shareit.validator.ValidationOnCreate;
 import ru.yandex.practicum.shareit.validator.ValidationOnUpdate;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
 @Controller
@@ -34,7 +39,7 @@ public class ItemController {
     private final ItemClient client;
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByUserId(
+    public Mono<ResponseEntity<Object>> getItemsByUserId(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(defaultValue = "20") @Positive Integer size
@@ -47,7 +52,7 @@ public class ItemController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItemById(
+    public Mono<ResponseEntity<Object>> getItemById(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @PathVariable Long id
     ) {
@@ -56,7 +61,7 @@ public class ItemController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createItem(
+    public Mono<ResponseEntity<Object>> createItem(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @RequestBody @Validated(ValidationOnCreate.class) ItemDto itemDto
     ) {
@@ -64,8 +69,17 @@ public class ItemController {
         return client.createItem(userId, itemDto);
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<Object>> importItems(
+            @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
+            HttpServletRequest request
+    ) throws IOException {
+        log.info("Request received POST /items/bulk: '{}', userId: {}", request.getContentType(), userId);
+        return client.importItems(userId, MediaType.parseMediaType(request.getContentType()), request.getInputStream());
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItemById(
+    public Mono<ResponseEntity<Object>> updateItemById(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @PathVariable Long id,
             @RequestBody @Validated(ValidationOnUpdate.class) ItemDto itemDto
@@ -75,13 +89,13 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(
+    public Mono<ResponseEntity<Object>> searchItems(
             @RequestParam String text,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(defaultValue = "20") @Positive Integer size
     ) {
         if (text.isBlank()) {
-            return ResponseEntity.ok(Collections.emptyList());
+            return Mono.just(ResponseEntity.ok(Collections.emptyList()));
         }
 
         Map<String, Object> parameters = Map.of(
@@ -92,8 +106,25 @@ public class ItemController {
         return client.searchItems(parameters);
     }
 
+    @GetMapping("/{id}/comments")
+    public Mono<ResponseEntity<Object>> getCommentsByItemId(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "20") @Positive Integer size,
+            @RequestParam(required = false) String cursor
+    ) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return client.getCommentsByItemId(id, parameters);
+    }
+
     @PostMapping("/{id}/comment")
-    public ResponseEntity<Object> createComment(
+    public Mono<ResponseEntity<Object>> createComment(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @PathVariable Long id,
             @RequestBody @Validated(ValidationOnCreate.class) CommentForCreateDto commentDto
@@ -49,5 +49,8 @@ public class ItemDto {
     @Null(groups = ValidationOnCreate.class, message = "Comments must be null")
     private List<CommentForResponseDto> comments;
 
+    @Null(groups = ValidationOnCreate.class, message = "Comment count must be null")
+    private Long commentCount;
+
     private Long requestId;
 }
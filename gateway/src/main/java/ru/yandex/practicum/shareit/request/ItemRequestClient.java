@@ -2,12 +2,12 @@ package ru.yandex.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.yandex.practicum.shareit.client.BaseClient;
+import ru.yandex.practicum.shareit.client.ResponseCache;
 
 import java.util.Map;
 
@@ -15,28 +15,32 @@ import java.util.Map;
 public class ItemRequestClient extends BaseClient {
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit_server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/requests"))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(
+            @Value("${shareit_server.url}") String serverUrl,
+            @Value("${shareit_server.passthrough}") boolean passthrough,
+            WebClient shareItServerWebClient,
+            ResponseCache responseCache
+    ) {
+        super(shareItServerWebClient, serverUrl + "/requests", passthrough, responseCache);
     }
 
-    public ResponseEntity<Object> getItemRequestsAll(Long userId, Map<String, Object> parameters) {
-        return get("/all?from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getItemRequestsAll(Long userId, Map<String, Object> parameters) {
+        return getCached(withCursor("/all?from={from}&size={size}", parameters), userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequestsByUserId(Long userId) {
+    public Mono<ResponseEntity<Object>> getItemRequestsByUserId(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemRequestById(Long userId, Long id) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(Long userId, Long id) {
         return get("/" + id, userId);
     }
 
-    public ResponseEntity<Object> createRequest(Long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createRequest(Long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
+
+    private String withCursor(String path, Map<String, Object> parameters) {
+        return parameters.containsKey("cursor") ? path + "&cursor={cursor}" : path;
+    }
 }
@@ -14,10 +14,12 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import reactor.core.publisher.Mono;
 import ru.yandex.practicum.shareit.validator.ValidationOnCreate;
 
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.HashMap;
 import java.util.Map;
 
 @Controller
@@ -31,25 +33,29 @@ public class ItemRequestController {
     private final ItemRequestClient client;
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getItemRequestsAll(
+    public Mono<ResponseEntity<Object>> getItemRequestsAll(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "20") @Positive Integer size
+            @RequestParam(defaultValue = "20") @Positive Integer size,
+            @RequestParam(required = false) String cursor
     ) {
-        Map<String, Object> parameters = Map.of(
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
+        ));
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
         return client.getItemRequestsAll(userId, parameters);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemRequestsByUserId(@RequestHeader(USER_ID_REQUEST_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getItemRequestsByUserId(@RequestHeader(USER_ID_REQUEST_HEADER) Long userId) {
         return client.getItemRequestsByUserId(userId);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItemRequestById(
+    public Mono<ResponseEntity<Object>> getItemRequestById(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @PathVariable Long id
     ) {
@@ -58,7 +64,7 @@ public class ItemRequestController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createRequest(
+    public Mono<ResponseEntity<Object>> createRequest(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @RequestBody @Validated(ValidationOnCreate.class) ItemRequestDto itemRequestDto
     ) {
@@ -2,43 +2,43 @@ package ru.yandex.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.yandex.practicum.shareit.client.BaseClient;
+import ru.yandex.practicum.shareit.client.ResponseCache;
 
 @Service
 public class UserClient extends BaseClient {
 
     @Autowired
-    public UserClient(@Value("${shareit_server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/users"))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(
+            @Value("${shareit_server.url}") String serverUrl,
+            @Value("${shareit_server.passthrough}") boolean passthrough,
+            WebClient shareItServerWebClient,
+            ResponseCache responseCache
+    ) {
+        super(shareItServerWebClient, serverUrl + "/users", passthrough, responseCache);
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUserById(Long id) {
-        return get("/" + id);
+    public Mono<ResponseEntity<Object>> getUserById(Long id) {
+        return getCached("/" + id, null, null);
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUserById(Long id, UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUserById(Long id, UserDto userDto) {
         return patch("/" + id, userDto);
     }
 
-    public ResponseEntity<Object> removeUserById(Long id) {
+    public Mono<ResponseEntity<Object>> removeUserById(Long id) {
         return delete("/" + id);
     }
 }
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import reactor.core.publisher.Mono;
 import ru.yandex.practicum.shareit.validator.ValidationOnCreate;
 import ru.yandex.practicum.shareit.validator.ValidationOnUpdate;
 
@@ -26,24 +27,24 @@ public class UserController {
     private final UserClient client;
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         return client.getUsers();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long id) {
         return client.getUserById(id);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createUser(@RequestBody @Validated(ValidationOnCreate.class) UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@RequestBody @Validated(ValidationOnCreate.class) UserDto userDto) {
         log.info("Request received POST /users: '{}'", userDto);
         return client.createUser(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUserById(
+    public Mono<ResponseEntity<Object>> updateUserById(
             @PathVariable Long id,
             @RequestBody @Validated(ValidationOnUpdate.class) UserDto userDto
     ) {
@@ -52,7 +53,7 @@ public class UserController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> removeUserById(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> removeUserById(@PathVariable Long id) {
         log.info("Request received DELETE /users/{}", id);
         return client.removeUserById(id);
     }
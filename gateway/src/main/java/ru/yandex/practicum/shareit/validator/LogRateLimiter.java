@@ -0,0 +1,46 @@
+package ru.yandex.practicum.shareit.validator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets through at most the given number of log messages per second and counts the rest
+ */
+public class LogRateLimiter {
+
+    private final int messagesPerSecond;
+    private final LongSupplier currentTimeMillis;
+
+    private final AtomicLong second = new AtomicLong();
+    private final AtomicInteger messages = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogRateLimiter(int messagesPerSecond) {
+        this(messagesPerSecond, System::currentTimeMillis);
+    }
+
+    LogRateLimiter(int messagesPerSecond, LongSupplier currentTimeMillis) {
+        this.messagesPerSecond = messagesPerSecond;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * Takes a message slot of the current second
+     *
+     * @return number of messages suppressed since the last logged one or -1 if this one must be suppressed
+     */
+    public long tryAcquire() {
+        long now = currentTimeMillis.getAsLong() / 1000;
+        long current = second.get();
+        if (now != current && second.compareAndSet(current, now)) {
+            messages.set(0);
+        }
+
+        if (messages.incrementAndGet() > messagesPerSecond) {
+            suppressed.incrementAndGet();
+            return -1;
+        }
+        return suppressed.getAndSet(0);
+    }
+}
@@ -3,6 +3,6 @@ package ru.yandex.practicum.shareit.validator;
 public class NotFoundException extends RuntimeException {
 
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,129 @@
+package ru.yandex.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The server is replaced by an exchange function that holds every GET until the test releases it
+ */
+class BaseClientTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ExchangeStrategies strategies = ExchangeStrategies.withDefaults();
+    private final List<Sinks.One<ClientResponse>> pendingGets = new CopyOnWriteArrayList<>();
+    private final List<HttpMethod> calls = new CopyOnWriteArrayList<>();
+
+    private TestClient client;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+                .exchangeStrategies(strategies)
+                .exchangeFunction(request -> {
+                    calls.add(request.method());
+                    if (request.method() != HttpMethod.GET) {
+                        return Mono.just(response("\"written\""));
+                    }
+
+                    Sinks.One<ClientResponse> pending = Sinks.one();
+                    pendingGets.add(pending);
+                    return pending.asMono();
+                })
+                .build();
+
+        ResponseCache responseCache = new ResponseCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        client = new TestClient(webClient, responseCache);
+    }
+
+    @Test
+    void get_shouldSendConcurrentIdenticalGetsToTheServerOnce() {
+        CompletableFuture<ResponseEntity<Object>> first = client.getItem(1L).toFuture();
+        CompletableFuture<ResponseEntity<Object>> second = client.getItem(1L).toFuture();
+        CompletableFuture<ResponseEntity<Object>> other = client.getItem(2L).toFuture();
+
+        assertThat(calls).containsExactly(HttpMethod.GET, HttpMethod.GET);
+
+        release(0, "\"item\"");
+        release(1, "\"other\"");
+
+        assertThat(first).succeedsWithin(TIMEOUT).extracting(ResponseEntity::getBody).isEqualTo("item");
+        assertThat(second).succeedsWithin(TIMEOUT).extracting(ResponseEntity::getBody).isEqualTo("item");
+        assertThat(other).succeedsWithin(TIMEOUT).extracting(ResponseEntity::getBody).isEqualTo("other");
+    }
+
+    @Test
+    void get_shouldSendTheGetAgain_onceTheCallIsCompleted() {
+        CompletableFuture<ResponseEntity<Object>> first = client.getItem(1L).toFuture();
+        release(0, "\"item\"");
+        assertThat(first).succeedsWithin(TIMEOUT);
+
+        CompletableFuture<ResponseEntity<Object>> second = client.getItem(1L).toFuture();
+        release(1, "\"updated item\"");
+
+        assertThat(second).succeedsWithin(TIMEOUT).extracting(ResponseEntity::getBody).isEqualTo("updated item");
+        assertThat(calls).containsExactly(HttpMethod.GET, HttpMethod.GET);
+    }
+
+    @Test
+    void get_shouldNotJoinACallStartedBeforeAWrite() {
+        CompletableFuture<ResponseEntity<Object>> beforeWrite = client.getItem(1L).toFuture();
+
+        assertThat(client.updateItem(1L).block(TIMEOUT)).extracting(ResponseEntity::getBody).isEqualTo("written");
+
+        CompletableFuture<ResponseEntity<Object>> afterWrite = client.getItem(1L).toFuture();
+
+        assertThat(calls).containsExactly(HttpMethod.GET, HttpMethod.PATCH, HttpMethod.GET);
+
+        release(0, "\"item\"");
+        release(1, "\"updated item\"");
+
+        assertThat(beforeWrite).succeedsWithin(TIMEOUT).extracting(ResponseEntity::getBody).isEqualTo("item");
+        assertThat(afterWrite).succeedsWithin(TIMEOUT).extracting(ResponseEntity::getBody)
+                .isEqualTo("updated item");
+    }
+
+    private void release(int index, String body) {
+        pendingGets.get(index).tryEmitValue(response(body)).orThrow();
+    }
+
+    private ClientResponse response(String body) {
+        return ClientResponse.create(HttpStatus.OK, strategies)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+
+    private static final class TestClient extends BaseClient {
+
+        private TestClient(WebClient webClient, ResponseCache responseCache) {
+            super(webClient, "", false, responseCache);
+        }
+
+        private Mono<ResponseEntity<Object>> getItem(long itemId) {
+            return get("/items/" + itemId, 1L);
+        }
+
+        private Mono<ResponseEntity<Object>> updateItem(long itemId) {
+            return patch("/items/" + itemId, 1L);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.yandex.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the gateway response path that parses server bodies into objects with the byte passthrough
+ * The server is replaced by an exchange function returning a prepared /items response,
+ * each operation proxies the response and writes it the way Spring MVC does
+ * Run with the main method, the GC profiler reports bytes/op as gc.alloc.rate.norm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class GatewayResponseBenchmark {
+
+    @Param({"20", "1000"})
+    private int items;
+
+    private final MappingJackson2HttpMessageConverter jsonConverter = new MappingJackson2HttpMessageConverter();
+    private final ByteArrayHttpMessageConverter byteArrayConverter = new ByteArrayHttpMessageConverter();
+
+    private ItemsClient objectClient;
+    private ItemsClient passthroughClient;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GatewayResponseBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] body = itemsJson(items).getBytes(StandardCharsets.UTF_8);
+
+        ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(-1))
+                .build();
+
+        WebClient webClient = WebClient.builder()
+                .exchangeStrategies(strategies)
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK, strategies)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(Flux.defer(() -> Flux.just(wrap(body))))
+                        .build()))
+                .build();
+
+        objectClient = new ItemsClient(webClient, false);
+        passthroughClient = new ItemsClient(webClient, true);
+    }
+
+    @Benchmark
+    public byte[] parseAndWrite() throws IOException {
+        ResponseEntity<Object> response = objectClient.getItems().block();
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        jsonConverter.write(response.getBody(), MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public byte[] passthrough() throws IOException {
+        ResponseEntity<Object> response = passthroughClient.getItems().block();
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        byteArrayConverter.write((byte[]) response.getBody(), MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsBytes();
+    }
+
+    private static DataBuffer wrap(byte[] body) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(body);
+    }
+
+    private static String itemsJson(int count) {
+        StringBuilder json = new StringBuilder("[");
+
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Дрель ").append(i).append('"')
+                    .append(",\"description\":\"Простая дрель для дома\",\"available\":true")
+                    .append(",\"lastBooking\":{\"id\":").append(i).append(",\"bookerId\":2}")
+                    .append(",\"nextBooking\":null")
+                    .append(",\"comments\":[{\"id\":").append(i)
+                    .append(",\"text\":\"Хорошая дрель\",\"authorName\":\"user\",\"created\":\"2023-01-01T10:00:00\"}]")
+                    .append(",\"requestId\":null}");
+        }
+
+        return json.append(']').toString();
+    }
+
+    private static final class ItemsClient extends BaseClient {
+
+        private ItemsClient(WebClient webClient, boolean passthrough) {
+            super(webClient, "", passthrough, new ResponseCache(1, Duration.ofMinutes(1), new SimpleMeterRegistry()));
+        }
+
+        private Mono<ResponseEntity<Object>> getItems() {
+            return get("/items", 1L);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.yandex.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final String KEY = "/items/1 1";
+
+    private ResponseCache responseCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new ResponseCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_shouldServeTheCachedResponse_untilAWriteEnds() {
+        assertThat(body(responseCache.get(KEY, () -> load("item")))).isEqualTo("item");
+        assertThat(body(responseCache.get(KEY, () -> load("updated item")))).isEqualTo("item");
+
+        responseCache.invalidateAfter(Mono.just(ResponseEntity.ok("written"))).block(TIMEOUT);
+
+        assertThat(body(responseCache.get(KEY, () -> load("updated item")))).isEqualTo("updated item");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_shouldLoadAgain_afterAFailedWrite() {
+        responseCache.get(KEY, () -> load("item")).block(TIMEOUT);
+
+        responseCache.invalidateAfter(Mono.error(new IllegalStateException()))
+                .onErrorResume(e -> Mono.empty())
+                .block(TIMEOUT);
+
+        assertThat(body(responseCache.get(KEY, () -> load("updated item")))).isEqualTo("updated item");
+    }
+
+    @Test
+    void get_shouldNotCacheTheResponse_ofALoadInFlightDuringAWrite() {
+        Sinks.One<ResponseEntity<Object>> inFlight = Sinks.one();
+        CompletableFuture<ResponseEntity<Object>> stale = responseCache.get(KEY, () -> {
+            loads.incrementAndGet();
+            return inFlight.asMono();
+        }).toFuture();
+
+        responseCache.invalidateAfter(Mono.just(ResponseEntity.ok("written"))).block(TIMEOUT);
+        inFlight.tryEmitValue(ResponseEntity.ok("item")).orThrow();
+
+        assertThat(stale).succeedsWithin(TIMEOUT).extracting(ResponseEntity::getBody).isEqualTo("item");
+        assertThat(body(responseCache.get(KEY, () -> load("updated item")))).isEqualTo("updated item");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_shouldNotCacheFailedResponses() {
+        Mono<ResponseEntity<Object>> notFound = Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body("error"));
+
+        assertThat(body(responseCache.get(KEY, () -> notFound))).isEqualTo("error");
+        assertThat(body(responseCache.get(KEY, () -> load("item")))).isEqualTo("item");
+    }
+
+    private Mono<ResponseEntity<Object>> load(Object body) {
+        loads.incrementAndGet();
+        return Mono.just(ResponseEntity.ok(body));
+    }
+
+    private static Object body(Mono<ResponseEntity<Object>> response) {
+        return response.block(TIMEOUT).getBody();
+    }
+}
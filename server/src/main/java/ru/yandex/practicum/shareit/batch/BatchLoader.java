@@ -0,0 +1,171 @@
+package ru.yandex.practicum.shareit.batch;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Collects lookups by key from concurrent callers and runs one query for all of them
+ * The first caller of a batch leads it, if other lookups are in progress it waits up to the window
+ * for more keys, then runs the query on its own thread and hands the values to the other callers
+ * A lone caller does not wait and runs the single key query, so an idle service pays no latency
+ * Batch sizes are recorded as the shareit.batch.size summary tagged by the loader name
+ *
+ * @param <K> key
+ * @param <V> value, null if the batch query returns nothing for the key
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<K, V> singleLoader;
+    private final Function<List<K>, Map<K, V>> batchLoader;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Duration timeout;
+    private final DistributionSummary batchSizes;
+
+    private final Object lock = new Object();
+
+    /**
+     * Batch that still accepts keys, guarded by lock
+     */
+    private Batch<K, V> open;
+
+    /**
+     * Callers inside load, guarded by lock
+     */
+    private int active;
+
+    public BatchLoader(
+            String name,
+            Function<K, V> singleLoader,
+            Function<List<K>, Map<K, V>> batchLoader,
+            int maxBatchSize,
+            Duration window,
+            Duration timeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.singleLoader = singleLoader;
+        this.batchLoader = batchLoader;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.timeout = timeout;
+
+        batchSizes = DistributionSummary.builder("shareit.batch.size")
+                .description("Keys loaded by one query")
+                .tag("loader", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the value of the key, loaded alone or together with the keys of concurrent callers
+     * Rethrows the exception of the query
+     * If the value is not loaded in time throws IllegalStateException
+     *
+     * @param key
+     * @return value
+     */
+    public V load(K key) {
+        Batch<K, V> batch;
+        CompletableFuture<V> future;
+        boolean leader = false;
+
+        synchronized (lock) {
+            active++;
+            if (open == null) {
+                open = new Batch<>();
+                leader = true;
+            }
+            batch = open;
+            future = batch.futures.computeIfAbsent(key, k -> new CompletableFuture<>());
+            if (batch.futures.size() >= maxBatchSize) {
+                open = null;
+                lock.notifyAll();
+            }
+        }
+
+        try {
+            if (leader) {
+                collect(batch);
+                dispatch(batch);
+            }
+            return await(future);
+        } finally {
+            synchronized (lock) {
+                active--;
+            }
+        }
+    }
+
+    private void collect(Batch<K, V> batch) {
+        synchronized (lock) {
+            long deadline = System.nanoTime() + windowNanos;
+            long remaining = windowNanos;
+            try {
+                while (open == batch && active > 1 && remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (open == batch) {
+                    open = null;
+                }
+            }
+        }
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        List<K> keys = new ArrayList<>(batch.futures.keySet());
+        batchSizes.record(keys.size());
+
+        try {
+            if (keys.size() == 1) {
+                batch.futures.get(keys.get(0)).complete(singleLoader.apply(keys.get(0)));
+                return;
+            }
+
+            Map<K, V> values = batchLoader.apply(keys);
+            batch.futures.forEach((key, future) -> future.complete(values.get(key)));
+        } catch (RuntimeException | Error e) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(String.format("Batch was not loaded in %d ms", timeout.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a batch");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class Batch<K, V> {
+
+        /**
+         * Written under the loader lock until the batch is closed, read by its leader after that
+         */
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,17 @@
+package ru.yandex.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Approved booking reduced to the columns of a rental, read without loading the booking entity
+ */
+public interface ApprovedRental {
+
+    Long getId();
+
+    Long getBookerId();
+
+    Long getItemId();
+
+    LocalDateTime getEnd();
+}
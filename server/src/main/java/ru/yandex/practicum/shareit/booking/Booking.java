@@ -16,19 +16,41 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(
+        name = Booking.WITH_ITEM_AND_BOOKER,
+        attributeNodes = {
+                @NamedAttributeNode(value = "item", subgraph = "item"),
+                @NamedAttributeNode("booker")
+        },
+        subgraphs = @NamedSubgraph(
+                name = "item",
+                attributeNodes = {@NamedAttributeNode("owner"), @NamedAttributeNode("request")}
+        )
+)
 @Getter
 @Setter
 @EqualsAndHashCode
 @ToString
 public class Booking {
 
+    /**
+     * Loads the item with its owner and request and the booker,
+     * everything BookingMapper and the access checks read
+     */
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date")
@@ -0,0 +1,208 @@
+package ru.yandex.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-item schedule of WAITING and APPROVED booking ranges
+ * The schedule of an item is loaded from the bookings table on first use
+ * and then kept up to date on create, approve and reject
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+
+    private static final List<BookingStatus> OCCUPYING_STATUSES =
+            List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, ItemSchedule> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the booking range to the item schedule if the range [start, end) is free
+     * The range is released again if the current transaction is rolled back
+     *
+     * @param booking
+     * @return true if the range was free, otherwise false
+     */
+    public boolean reserve(Booking booking) {
+        ItemSchedule schedule = getSchedule(booking.getItem().getId());
+        Reservation reservation = new Reservation(booking.getId(), booking.getStart(), booking.getEnd());
+
+        if (!schedule.reserve(reservation)) {
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        schedule.release(reservation.id);
+                    }
+                }
+            });
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the booking range from the item schedule once the current transaction commits
+     *
+     * @param booking
+     */
+    public void release(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            releaseNow(itemId, bookingId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseNow(itemId, bookingId);
+            }
+        });
+    }
+
+    /**
+     * Loads the item schedule unless it is already loaded
+     * Called before the booking is saved, so the loaded schedule holds only the other bookings
+     *
+     * @param itemId
+     */
+    public void load(Long itemId) {
+        getSchedule(itemId);
+    }
+
+    /**
+     * Drops all loaded schedules, they are loaded again on next use
+     */
+    public void clear() {
+        schedules.clear();
+    }
+
+    private void releaseNow(Long itemId, Long bookingId) {
+        ItemSchedule schedule = schedules.get(itemId);
+        if (schedule != null) {
+            schedule.release(bookingId);
+        }
+    }
+
+    /**
+     * The schedule is loaded outside of the map, so the query does not block the other items,
+     * and the first installed schedule wins over a concurrently loaded one
+     */
+    private ItemSchedule getSchedule(Long itemId) {
+        ItemSchedule schedule = schedules.get(itemId);
+        if (schedule != null) {
+            return schedule;
+        }
+
+        ItemSchedule loaded = new ItemSchedule();
+        bookingRepository.findByItemIdAndStatusInAndEndAfter(itemId, OCCUPYING_STATUSES, LocalDateTime.now())
+                .forEach(booking -> loaded.add(new Reservation(booking.getId(), booking.getStart(), booking.getEnd())));
+
+        ItemSchedule installed = schedules.putIfAbsent(itemId, loaded);
+        return installed != null ? installed : loaded;
+    }
+
+    private static final class Reservation {
+
+        private static final Comparator<Reservation> ORDER = Comparator
+                .comparing((Reservation reservation) -> reservation.start)
+                .thenComparing(reservation -> reservation.id, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        private final Long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Reservation(Long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Booking ranges of a single item ordered by start
+     * Ranges overlapping [start, end) can only start before end and later than start minus
+     * the longest stored range, so only that window of the ordered set is checked
+     * Ranges are released by booking id, a booking read back from the database
+     * may carry a start truncated to the column precision
+     */
+    private static final class ItemSchedule {
+
+        private final NavigableSet<Reservation> reservations = new TreeSet<>(Reservation.ORDER);
+        private final Map<Long, Reservation> reservationsById = new HashMap<>();
+        private Duration longest = Duration.ZERO;
+
+        private synchronized boolean reserve(Reservation reservation) {
+            removeFinished();
+
+            if (overlaps(reservation)) {
+                return false;
+            }
+
+            add(reservation);
+            return true;
+        }
+
+        private synchronized void release(Long bookingId) {
+            Reservation reservation = reservationsById.remove(bookingId);
+            if (reservation != null) {
+                reservations.remove(reservation);
+            }
+        }
+
+        private synchronized void add(Reservation reservation) {
+            reservations.add(reservation);
+            reservationsById.put(reservation.id, reservation);
+
+            Duration duration = Duration.between(reservation.start, reservation.end);
+            if (duration.compareTo(longest) > 0) {
+                longest = duration;
+            }
+        }
+
+        private boolean overlaps(Reservation reservation) {
+            LocalDateTime earliestStart = reservation.start.minus(longest);
+            Reservation upperBound = new Reservation(null, reservation.end, null);
+
+            for (Reservation stored : reservations.headSet(upperBound, false).descendingSet()) {
+                if (stored.start.isBefore(earliestStart)) {
+                    return false;
+                }
+                if (stored.end.isAfter(reservation.start)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private void removeFinished() {
+            LocalDateTime finishedBefore = LocalDateTime.now().minus(longest);
+            while (!reservations.isEmpty() && reservations.first().start.isBefore(finishedBefore)) {
+                reservationsById.remove(reservations.pollFirst().id);
+            }
+        }
+    }
+}
@@ -4,8 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -17,6 +19,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.yandex.practicum.shareit.item.ItemService;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 import ru.yandex.practicum.shareit.user.UserService;
 
 import java.util.List;
@@ -28,6 +31,8 @@ import java.util.List;
 public class BookingController {
 
     private static final String USER_ID_REQUEST_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_RESPONSE_HEADER = "X-Next-Cursor";
+    private static final Sort SORT_BY_START = Sort.by(Sort.Direction.DESC, "start", "id");
 
     private final BookingService bookingService;
     private final ItemService itemService;
@@ -35,25 +40,27 @@ public class BookingController {
     private final BookingMapper bookingMapper;
 
     @GetMapping
-    public List<BookingForResponseDto> getBookingsByUserId(
+    public ResponseEntity<List<BookingForResponseDto>> getBookingsByUserId(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "20") Integer size
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor
     ) {
-        Pageable page = PageRequest.of(from / size, size, Sort.by("start").descending());
-        return bookingMapper.toDtos(bookingService.getBookingsByUserId(userId, state, page));
+        Pageable page = PageRequest.of(from / size, size, SORT_BY_START);
+        return toResponse(bookingService.getBookingsByUserId(userId, state, toCursor(cursor), page));
     }
 
     @GetMapping("/owner")
-    public List<BookingForResponseDto> getBookingsByItemOwnerId(
+    public ResponseEntity<List<BookingForResponseDto>> getBookingsByItemOwnerId(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @RequestParam(defaultValue = "ALL") String state,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "20") Integer size
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor
     ) {
-        Pageable page = PageRequest.of(from / size, size, Sort.by("start").descending());
-        return bookingMapper.toDtos(bookingService.getBookingsByItemOwnerId(userId, state, page));
+        Pageable page = PageRequest.of(from / size, size, SORT_BY_START);
+        return toResponse(bookingService.getBookingsByItemOwnerId(userId, state, toCursor(cursor), page));
     }
 
     @GetMapping("/{id}")
@@ -84,6 +91,21 @@ public class BookingController {
         return bookingMapper.toDto(bookingService.approveBookingById(id, approved, userId));
     }
 
+    private KeysetCursor toCursor(String cursor) {
+        return cursor == null ? null : KeysetCursor.decode(cursor);
+    }
+
+    private ResponseEntity<List<BookingForResponseDto>> toResponse(Slice<Booking> bookings) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (bookings.hasNext()) {
+            Booking last = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR_RESPONSE_HEADER, KeysetCursor.of(last.getStart(), last.getId()).encode());
+        }
+
+        return response.body(bookingMapper.toDtos(bookings.getContent()));
+    }
+
     private Booking toBooking(BookingForCreateDto bookingDto, Long ownerId) {
         Booking booking = bookingMapper.toBooking(bookingDto);
 
@@ -1,33 +1,95 @@
 package ru.yandex.practicum.shareit.booking;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>,
+        BookingRepositoryCustom {
 
     /**
-     * Returns a list of bookings for item IDs and status
+     * Returns booking by id together with the item, the item owner and the booker
+     *
+     * @param id
+     * @return booking
+     */
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Override
+    Optional<Booking> findById(Long id);
+
+    /**
+     * Returns the last approved booking that started before the date for each of the item IDs
+     * Reads at most one booking per item no matter how long the booking history is
      *
      * @param itemIds
-     * @param status
-     * @param sort
+     * @param dateTime
      * @return list of bookings
      */
-    List<Booking> findByItemIdInAndStatus(List<Long> itemIds, BookingStatus status, Sort sort);
+    @Query(value = "select * from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.start_date desc) as rn " +
+            "from bookings b " +
+            "where b.item_id in (?1) and b.status = 'APPROVED' and b.start_date < ?2" +
+            ") as last_bookings " +
+            "where rn = 1", nativeQuery = true)
+    List<Booking> findLastApprovedBookingsByItemIds(List<Long> itemIds, LocalDateTime dateTime);
+
+    /**
+     * Returns the first approved booking that starts after the date for each of the item IDs
+     * Reads at most one booking per item no matter how long the booking history is
+     *
+     * @param itemIds
+     * @param dateTime
+     * @return list of bookings
+     */
+    @Query(value = "select * from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.start_date) as rn " +
+            "from bookings b " +
+            "where b.item_id in (?1) and b.status = 'APPROVED' and b.start_date > ?2" +
+            ") as next_bookings " +
+            "where rn = 1", nativeQuery = true)
+    List<Booking> findNextApprovedBookingsByItemIds(List<Long> itemIds, LocalDateTime dateTime);
+
+    /**
+     * Returns the last booking for item ID and status that started before the date
+     *
+     * @param itemId
+     * @param status
+     * @param dateTime
+     * @return booking
+     */
+    Optional<Booking> findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+            Long itemId, BookingStatus status, LocalDateTime dateTime
+    );
 
     /**
-     * Returns a list of bookings for item ID and status
+     * Returns the first booking for item ID and status that starts after the date
      *
      * @param itemId
      * @param status
-     * @param sort
+     * @param dateTime
+     * @return booking
+     */
+    Optional<Booking> findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(
+            Long itemId, BookingStatus status, LocalDateTime dateTime
+    );
+
+    /**
+     * Returns a list of bookings for item ID in the given statuses that end after the date
+     *
+     * @param itemId
+     * @param statuses
+     * @param dateTime
      * @return list of bookings
      */
-    List<Booking> findByItemIdAndStatus(Long itemId, BookingStatus status, Sort sort);
+    List<Booking> findByItemIdAndStatusInAndEndAfter(Long itemId, List<BookingStatus> statuses, LocalDateTime dateTime);
 
     /**
      * Checks for a booking by item id, user id, status, and rental expiration date
@@ -43,16 +105,30 @@ public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpec
     );
 
     /**
-     * Removes a user's bookings
+     * Returns approved bookings with IDs greater than the given one as rentals
+     * Used to walk through the approved bookings page by page without offset
      *
-     * @param userId
+     * @param id
+     * @param page
+     * @return list of rentals
      */
-    void deleteByBookerId(Long userId);
+    @Query("select b.id as id, b.booker.id as bookerId, b.item.id as itemId, b.end as end from Booking b " +
+            "where b.id > ?1 and b.status = ru.yandex.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "order by b.id")
+    List<ApprovedRental> findApprovedRentalsByIdGreaterThan(Long id, Pageable page);
 
     /**
-     * Removes bookings of all user items
+     * Removes up to limit of a user's bookings and bookings of the user items
      *
      * @param userId
+     * @param limit
+     * @return number of removed bookings
      */
-    void deleteByItemOwnerId(Long userId);
+    @Transactional
+    @Modifying
+    @Query(value = "delete from bookings where id in (" +
+            "select b.id from bookings b " +
+            "where b.booker_id = ?1 or b.item_id in (select i.id from items i where i.owner_id = ?1) " +
+            "limit ?2)", nativeQuery = true)
+    int deleteChunkByBookerIdOrItemOwnerId(Long userId, int limit);
 }
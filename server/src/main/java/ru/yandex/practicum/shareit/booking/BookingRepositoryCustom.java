@@ -0,0 +1,19 @@
+package ru.yandex.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Returns a slice of bookings matching the specification
+     * Reads one row more than the page size to find out whether there is a next slice,
+     * so no count query is executed
+     *
+     * @param specification
+     * @param page
+     * @return slice of bookings
+     */
+    Slice<Booking> findSlice(Specification<Booking> specification, Pageable page);
+}
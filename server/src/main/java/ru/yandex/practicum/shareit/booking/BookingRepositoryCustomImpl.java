@@ -0,0 +1,50 @@
+package ru.yandex.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private static final String FETCH_GRAPH_HINT = "javax.persistence.fetchgraph";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Booking> findSlice(Specification<Booking> specification, Pageable page) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = builder.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(page.getSort(), root, builder));
+
+        List<Booking> bookings = entityManager.createQuery(query)
+                .setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(Booking.WITH_ITEM_AND_BOOKER))
+                .setFirstResult((int) page.getOffset())
+                .setMaxResults(page.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = bookings.size() > page.getPageSize();
+        if (hasNext) {
+            bookings = new ArrayList<>(bookings.subList(0, page.getPageSize()));
+        }
+
+        return new SliceImpl<>(bookings, page, hasNext);
+    }
+}
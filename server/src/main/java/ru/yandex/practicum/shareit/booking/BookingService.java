@@ -1,6 +1,8 @@
 package ru.yandex.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 
 import java.util.List;
 import java.util.Map;
@@ -10,26 +12,30 @@ public interface BookingService {
     /**
      * Returns a list of user's bookings
      * Results should be returned page by page
+     * If the cursor is given, the page starts right after it and the page offset is ignored
      * If the user is not found throws NotFoundException
      *
      * @param userId
      * @param state
+     * @param cursor
      * @param page
-     * @return list of bookings
+     * @return slice of bookings
      */
-    List<Booking> getBookingsByUserId(Long userId, String state, Pageable page);
+    Slice<Booking> getBookingsByUserId(Long userId, String state, KeysetCursor cursor, Pageable page);
 
     /**
      * Returns a list of bookings for all the user's items
      * Results should be returned page by page
+     * If the cursor is given, the page starts right after it and the page offset is ignored
      * If the user is not found throws NotFoundException
      *
      * @param userId
      * @param state
+     * @param cursor
      * @param page
-     * @return list of bookings
+     * @return slice of bookings
      */
-    List<Booking> getBookingsByItemOwnerId(Long userId, String state, Pageable page);
+    Slice<Booking> getBookingsByItemOwnerId(Long userId, String state, KeysetCursor cursor, Pageable page);
 
     /**
      * Returns booking by id
@@ -53,6 +59,15 @@ public interface BookingService {
      */
     Booking createBooking(Booking booking);
 
+    /**
+     * Creates new item bookings in a single transaction
+     * Every booking is checked as in createBooking, rows are inserted in JDBC batches
+     *
+     * @param bookings
+     * @return list of new bookings
+     */
+    List<Booking> createBookings(List<Booking> bookings);
+
     /**
      * Approve or reject item booking
      * Can only be performed by the owner of the item
@@ -66,34 +81,34 @@ public interface BookingService {
     Booking approveBookingById(Long id, Boolean approved, Long userId);
 
     /**
-     * Returns a list of bookings for item IDs
+     * Returns the last approved booking before the current time for each of the item IDs
      *
      * @param itemIds
-     * @return list of bookings
+     * @return last bookings by item ID
      */
-    Map<Long, List<Booking>> getBookingsByItemIds(List<Long> itemIds);
+    Map<Long, Booking> getLastBookingsByItemIds(List<Long> itemIds);
 
     /**
-     * Returns a list of bookings for item ID
+     * Returns the first approved booking after the current time for each of the item IDs
      *
-     * @param itemId
-     * @return list of bookings
+     * @param itemIds
+     * @return next bookings by item ID
      */
-    List<Booking> getBookingsByItemId(Long itemId);
+    Map<Long, Booking> getNextBookingsByItemIds(List<Long> itemIds);
 
     /**
-     * Returns the last booking before the current time
+     * Returns the last approved booking of the item before the current time
      *
-     * @param bookings
+     * @param itemId
      * @return last booking
      */
-    Booking getLastBooking(List<Booking> bookings);
+    Booking getLastBookingByItemId(Long itemId);
 
     /**
-     * Returns the first booking after the current time
+     * Returns the first approved booking of the item after the current time
      *
-     * @param bookings
-     * @return first booking
+     * @param itemId
+     * @return next booking
      */
-    Booking getNextBooking(List<Booking> bookings);
+    Booking getNextBookingByItemId(Long itemId);
 }
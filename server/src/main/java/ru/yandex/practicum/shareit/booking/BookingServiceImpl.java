@@ -1,20 +1,22 @@
 package ru.yandex.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.yandex.practicum.shareit.user.UserRepository;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
+import ru.yandex.practicum.shareit.user.UserService;
 import ru.yandex.practicum.shareit.validator.NotFoundException;
 import ru.yandex.practicum.shareit.validator.ValidationException;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,12 +24,14 @@ import java.util.stream.Collectors;
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
+    private final BookingAvailabilityIndex bookingAvailabilityIndex;
+    private final CompletedRentals completedRentals;
 
     @Transactional(readOnly = true)
     @Override
-    public List<Booking> getBookingsByUserId(Long userId, String state, Pageable page) {
-        if (!userRepository.existsById(userId)) {
+    public Slice<Booking> getBookingsByUserId(Long userId, String state, KeysetCursor cursor, Pageable page) {
+        if (!userService.existsById(userId)) {
             throw new NotFoundException(String.format("User with id %d does not exist", userId));
         }
 
@@ -37,13 +41,13 @@ public class BookingServiceImpl implements BookingService {
             specification = Specification.where(specification).and(bookingListState.getSpecification());
         }
 
-        return bookingRepository.findAll(specification, page).toList();
+        return findBookings(specification, cursor, page);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<Booking> getBookingsByItemOwnerId(Long userId, String state, Pageable page) {
-        if (!userRepository.existsById(userId)) {
+    public Slice<Booking> getBookingsByItemOwnerId(Long userId, String state, KeysetCursor cursor, Pageable page) {
+        if (!userService.existsById(userId)) {
             throw new NotFoundException(String.format("User with id %d does not exist", userId));
         }
 
@@ -53,7 +57,7 @@ public class BookingServiceImpl implements BookingService {
             specification = Specification.where(specification).and(bookingListState.getSpecification());
         }
 
-        return bookingRepository.findAll(specification, page).toList();
+        return findBookings(specification, cursor, page);
     }
 
     @Transactional(readOnly = true)
@@ -74,18 +78,32 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     @Override
     public Booking createBooking(Booking booking) {
-        if (Objects.equals(booking.getBooker().getId(), booking.getItem().getOwner().getId())) {
-            throw new NotFoundException("The owner of the item and the booker are the same");
-        }
+        checkNewBooking(booking);
+        bookingAvailabilityIndex.load(booking.getItem().getId());
 
-        if (Objects.equals(Boolean.FALSE, booking.getItem().getAvailable())) {
-            throw new ValidationException(
-                    String.format("Item with id %d not available for booking", booking.getItem().getId())
-            );
+        booking.setStatus(BookingStatus.WAITING);
+        Booking createdBooking = bookingRepository.save(booking);
+        reserve(createdBooking);
+
+        return createdBooking;
+    }
+
+    @Transactional
+    @Override
+    public List<Booking> createBookings(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            checkNewBooking(booking);
+            booking.setStatus(BookingStatus.WAITING);
         }
+        bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .forEach(bookingAvailabilityIndex::load);
 
-        booking.setStatus(BookingStatus.WAITING);
-        return bookingRepository.save(booking);
+        List<Booking> createdBookings = bookingRepository.saveAll(bookings);
+        createdBookings.forEach(this::reserve);
+
+        return createdBookings;
     }
 
     @Transactional
@@ -106,8 +124,10 @@ public class BookingServiceImpl implements BookingService {
 
         if (Objects.equals(Boolean.TRUE, approved)) {
             booking.setStatus(BookingStatus.APPROVED);
+            completedRentals.add(booking);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
+            bookingAvailabilityIndex.release(booking);
         }
 
         return bookingRepository.save(booking);
@@ -115,41 +135,62 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public Map<Long, List<Booking>> getBookingsByItemIds(List<Long> itemIds) {
-        return bookingRepository.findByItemIdInAndStatus(itemIds, BookingStatus.APPROVED,
-                        Sort.by("start").ascending()).stream()
-                        .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+    public Map<Long, Booking> getLastBookingsByItemIds(List<Long> itemIds) {
+        return bookingRepository.findLastApprovedBookingsByItemIds(itemIds, LocalDateTime.now()).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<Booking> getBookingsByItemId(Long itemId) {
-        return new ArrayList<>(bookingRepository.findByItemIdAndStatus(itemId, BookingStatus.APPROVED,
-                Sort.by("start").ascending()));
+    public Map<Long, Booking> getNextBookingsByItemIds(List<Long> itemIds) {
+        return bookingRepository.findNextApprovedBookingsByItemIds(itemIds, LocalDateTime.now()).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public Booking getLastBooking(List<Booking> bookings) {
-        if (bookings == null || bookings.isEmpty()) {
-            return null;
+    public Booking getLastBookingByItemId(Long itemId) {
+        return bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                itemId, BookingStatus.APPROVED, LocalDateTime.now()).orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Booking getNextBookingByItemId(Long itemId) {
+        return bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(
+                itemId, BookingStatus.APPROVED, LocalDateTime.now()).orElse(null);
+    }
+
+    private void checkNewBooking(Booking booking) {
+        if (Objects.equals(booking.getBooker().getId(), booking.getItem().getOwner().getId())) {
+            throw new NotFoundException("The owner of the item and the booker are the same");
         }
 
-        return bookings.stream()
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()))
-                .reduce((booking1, booking2) -> booking2)
-                .orElse(null);
+        if (Objects.equals(Boolean.FALSE, booking.getItem().getAvailable())) {
+            throw new ValidationException(
+                    String.format("Item with id %d not available for booking", booking.getItem().getId())
+            );
+        }
     }
 
-    @Override
-    public Booking getNextBooking(List<Booking> bookings) {
-        if (bookings == null || bookings.isEmpty()) {
-            return null;
+    private void reserve(Booking booking) {
+        if (!bookingAvailabilityIndex.reserve(booking)) {
+            throw new ValidationException(String.format(
+                    "Item with id %d is already booked for the period from %s to %s",
+                    booking.getItem().getId(), booking.getStart(), booking.getEnd())
+            );
+        }
+    }
+
+    private Slice<Booking> findBookings(Specification<Booking> specification, KeysetCursor cursor, Pageable page) {
+        if (cursor == null) {
+            return bookingRepository.findSlice(specification, page);
         }
 
-        return bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                .findFirst()
-                .orElse(null);
+        return bookingRepository.findSlice(
+                specification.and(BookingSpecification.isBefore(cursor)),
+                PageRequest.of(0, page.getPageSize(), page.getSort())
+        );
     }
 
     private BookingListState getBookingListState(String state) {
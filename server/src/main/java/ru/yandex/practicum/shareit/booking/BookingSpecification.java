@@ -1,7 +1,11 @@
 package ru.yandex.practicum.shareit.booking;
 
 import org.springframework.data.jpa.domain.Specification;
+import ru.yandex.practicum.shareit.item.Item;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
 import java.time.LocalDateTime;
 
 public class BookingSpecification {
@@ -11,9 +15,17 @@ public class BookingSpecification {
                 builder.equal(root.<Long>get("booker").get("id"), userId);
     }
 
+    /**
+     * Matches bookings of the owner items through a subquery on item ids
+     * so the bookings are read by the item_id index instead of a scan joined to items
+     */
     public static Specification<Booking> byItemOwnerId(Long userId) {
-        return (root, query, builder) -> builder.equal(root.<Long>get("item")
-                .get("owner").get("id"), userId);
+        return (root, query, builder) -> {
+            Subquery<Long> ownerItems = query.subquery(Long.class);
+            Root<Item> item = ownerItems.from(Item.class);
+            ownerItems.select(item.get("id")).where(builder.equal(item.get("owner").get("id"), userId));
+            return root.get("item").get("id").in(ownerItems);
+        };
     }
 
     public static Specification<Booking> hasCurrent() {
@@ -47,4 +59,14 @@ public class BookingSpecification {
     public static Specification<Booking> hasRejected() {
         return (root, query, builder) -> builder.equal(root.get("status"), BookingStatus.REJECTED);
     }
+
+    public static Specification<Booking> isBefore(KeysetCursor cursor) {
+        return (root, query, builder) -> builder.or(
+                builder.lessThan(root.get("start"), cursor.getTimestamp()),
+                builder.and(
+                        builder.equal(root.get("start"), cursor.getTimestamp()),
+                        builder.lessThan(root.get("id"), cursor.getId())
+                )
+        );
+    }
 }
@@ -0,0 +1,119 @@
+package ru.yandex.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rentals of items by bookers, checked before a comment is created
+ * Holds the earliest end of the approved bookings of every (booker, item) pair,
+ * the rental is completed once that end has passed, so a booking joins the set at its end time without a job
+ * Approved bookings never change status, the set only grows until the purger removes a booker
+ * Before the set is loaded the check asks the database
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CompletedRentals {
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Rental, LocalDateTime> firstEnds = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Loads the approved bookings, pairs added meanwhile are kept
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Long lastId = 0L;
+        List<ApprovedRental> batch;
+        do {
+            batch = bookingRepository.findApprovedRentalsByIdGreaterThan(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (ApprovedRental rental : batch) {
+                put(rental.getBookerId(), rental.getItemId(), rental.getEnd());
+                lastId = rental.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        loaded = true;
+        log.info("Completed rentals loaded: {} pairs", firstEnds.size());
+    }
+
+    /**
+     * Adds the approved booking once the current transaction commits
+     *
+     * @param booking
+     */
+    public void add(Booking booking) {
+        Long bookerId = booking.getBooker().getId();
+        Long itemId = booking.getItem().getId();
+        LocalDateTime end = booking.getEnd();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(bookerId, itemId, end);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(bookerId, itemId, end);
+            }
+        });
+    }
+
+    /**
+     * Checks whether the user has an approved booking of the item that has already ended
+     *
+     * @param bookerId
+     * @param itemId
+     * @return true or false
+     */
+    public boolean isCompleted(Long bookerId, Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        if (!loaded) {
+            return bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(
+                    itemId, bookerId, BookingStatus.APPROVED, now);
+        }
+
+        LocalDateTime firstEnd = firstEnds.get(new Rental(bookerId, itemId));
+        return firstEnd != null && firstEnd.isBefore(now);
+    }
+
+    /**
+     * Drops the rentals of the purged user
+     *
+     * @param bookerId
+     */
+    public void removeByBookerId(Long bookerId) {
+        firstEnds.keySet().removeIf(rental -> Objects.equals(rental.getBookerId(), bookerId));
+    }
+
+    private void put(Long bookerId, Long itemId, LocalDateTime end) {
+        firstEnds.merge(new Rental(bookerId, itemId), end,
+                (current, added) -> added.isBefore(current) ? added : current);
+    }
+
+    @Value
+    private static class Rental {
+
+        Long bookerId;
+        Long itemId;
+    }
+}
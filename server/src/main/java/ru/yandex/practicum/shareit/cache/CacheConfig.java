@@ -0,0 +1,17 @@
+package ru.yandex.practicum.shareit.cache;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caffeine caches configured with the spring.cache.* properties
+ * The caching advice wraps the transactional one, so cache puts and evictions happen after commit
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String USER_EXISTS = "userExists";
+}
@@ -0,0 +1,136 @@
+package ru.yandex.practicum.shareit.ids;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bit set of the IDs present in a table, used to reject unknown IDs without a query
+ * IDs come from sequences and are dense, so one bit per possible ID is smaller than a Bloom filter and exact
+ * A cleared bit means the ID does not exist, a set bit only means the table has to be asked:
+ * IDs are added before their insert commits and removed only after their delete commits
+ */
+@Slf4j
+public abstract class LiveIdSet {
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet ids = new BitSet();
+    private volatile boolean loaded;
+
+    /**
+     * Returns IDs greater than the given one in ascending order
+     *
+     * @param id
+     * @param limit
+     * @return list of IDs
+     */
+    protected abstract List<Long> findIdsGreaterThan(Long id, int limit);
+
+    /**
+     * Loads all IDs of the table, nothing is reported absent before that
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Long lastId = 0L;
+        int count = 0;
+        List<Long> batch;
+        do {
+            batch = findIdsGreaterThan(lastId, LOAD_BATCH_SIZE);
+            lock.writeLock().lock();
+            try {
+                batch.forEach(this::set);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1);
+                count += batch.size();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        loaded = true;
+        log.info("{} loaded: {} ids", getClass().getSimpleName(), count);
+    }
+
+    /**
+     * Checks whether the ID is known not to exist
+     *
+     * @param id
+     * @return true if the ID does not exist, false if it may exist
+     */
+    public boolean isAbsent(Long id) {
+        if (!loaded || id == null || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        if (id < 1) {
+            return true;
+        }
+
+        lock.readLock().lock();
+        try {
+            return !ids.get(id.intValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the ID as existing
+     *
+     * @param id
+     */
+    public void add(Long id) {
+        lock.writeLock().lock();
+        try {
+            set(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the ID as removed once the current transaction commits
+     *
+     * @param id
+     */
+    public void remove(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear(id);
+                }
+            });
+        } else {
+            clear(id);
+        }
+    }
+
+    private void set(Long id) {
+        if (id > 0 && id <= Integer.MAX_VALUE) {
+            ids.set(id.intValue());
+        }
+    }
+
+    private void clear(Long id) {
+        if (id <= 0 || id > Integer.MAX_VALUE) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            ids.clear(id.intValue());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -1,35 +1,83 @@
 package ru.yandex.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     /**
-     * Returns a list of comments for item IDs
+     * Returns IDs of up to limit newest comments for each of the item IDs
+     * Reads the bounded preview of an item no matter how many comments it has
      *
      * @param itemIds
+     * @param limit
+     * @return list of comment IDs
+     */
+    @Query(value = "select id from (" +
+            "select c.id, row_number() over (partition by c.item_id order by c.created desc, c.id desc) as rn " +
+            "from comments c " +
+            "where c.item_id in (?1)" +
+            ") as latest_comments " +
+            "where rn <= ?2", nativeQuery = true)
+    List<Long> findLatestIdsByItemIdIn(List<Long> itemIds, int limit);
+
+    /**
+     * Returns a list of comments by IDs with their authors
+     *
+     * @param ids
      * @param sort
      * @return list of comments
      */
-    Collection<Comment> findByItemIdIn(List<Long> itemIds, Sort sort);
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findByIdIn(List<Long> ids, Sort sort);
 
     /**
-     * Returns a list of comments for item ID
+     * Returns a list of comments for item ID with their authors
+     * Results should be returned page by page
      *
      * @param itemId
-     * @param sort
+     * @param page
+     * @return list of comments
+     */
+    @EntityGraph(attributePaths = "author")
+    Slice<Comment> findByItemId(Long itemId, Pageable page);
+
+    /**
+     * Returns a list of comments for item ID created before the given (created, id) position with their authors
+     * Results should be returned page by page
+     *
+     * @param itemId
+     * @param created
+     * @param id
+     * @param page
      * @return list of comments
      */
-    Collection<Comment> findByItemId(Long itemId, Sort sort);
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment c " +
+            "where c.item.id = ?1 and (c.created < ?2 or (c.created = ?2 and c.id < ?3))")
+    Slice<Comment> findByItemIdBefore(Long itemId, LocalDateTime created, Long id, Pageable page);
 
     /**
-     * Removes a user's comments
+     * Removes up to limit of a user's comments and comments on the user items
      *
      * @param userId
+     * @param limit
+     * @return number of removed comments
      */
-    void deleteByAuthorId(Long userId);
+    @Transactional
+    @Modifying
+    @Query(value = "delete from comments where id in (" +
+            "select c.id from comments c " +
+            "where c.author_id = ?1 or c.item_id in (select i.id from items i where i.owner_id = ?1) " +
+            "limit ?2)", nativeQuery = true)
+    int deleteChunkByAuthorIdOrItemOwnerId(Long userId, int limit);
 }
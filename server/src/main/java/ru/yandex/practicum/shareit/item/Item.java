@@ -4,6 +4,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Where;
 import ru.yandex.practicum.shareit.booking.Booking;
 import ru.yandex.practicum.shareit.request.ItemRequest;
 import ru.yandex.practicum.shareit.user.User;
@@ -15,6 +16,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.Transient;
 import java.util.List;
@@ -25,10 +27,12 @@ import java.util.List;
 @Setter
 @EqualsAndHashCode
 @ToString
+@Where(clause = "is_deleted = false")
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column
@@ -46,6 +50,12 @@ public class Item {
     @ManyToOne(fetch = FetchType.LAZY)
     private ItemRequest request;
 
+    /**
+     * Changed only by the comment queries, an update of the item never writes it
+     */
+    @Column(name = "comment_count", updatable = false)
+    private long commentCount;
+
     @Transient
     private Booking lastBooking;
 
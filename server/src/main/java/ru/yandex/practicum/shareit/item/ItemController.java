@@ -4,8 +4,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,9 +19,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 import ru.yandex.practicum.shareit.request.ItemRequestService;
 import ru.yandex.practicum.shareit.user.UserService;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
 
@@ -29,12 +35,15 @@ import java.util.Objects;
 public class ItemController {
 
     private static final String USER_ID_REQUEST_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_RESPONSE_HEADER = "X-Next-Cursor";
+    private static final Sort SORT_BY_CREATED = Sort.by(Sort.Direction.DESC, "created", "id");
 
     private final ItemService itemService;
     private final UserService userService;
     private final ItemRequestService itemRequestService;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
+    private final ItemImporter itemImporter;
 
     @GetMapping
     public List<ItemDto> getItemsByUserId(
@@ -72,6 +81,15 @@ public class ItemController {
         return itemMapper.toDto(itemService.createItem(toItem(itemDto, userId)));
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<ItemImportResultDto> importItems(
+            @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
+            HttpServletRequest request
+    ) throws IOException {
+        log.info("Request received POST /items/bulk: '{}', userId: {}", request.getContentType(), userId);
+        return itemImporter.importItems(userId, request.getInputStream());
+    }
+
     @PatchMapping("/{id}")
     public ItemDto updateItemById(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
@@ -93,6 +111,26 @@ public class ItemController {
         return itemMapper.toDtos(itemService.searchItems(text, page));
     }
 
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<List<CommentForResponseDto>> getCommentsByItemId(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor
+    ) {
+        Pageable page = PageRequest.of(from / size, size, SORT_BY_CREATED);
+        KeysetCursor keysetCursor = cursor == null ? null : KeysetCursor.decode(cursor);
+        Slice<Comment> comments = itemService.getCommentsByItemId(id, keysetCursor, page);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (comments.hasNext()) {
+            Comment last = comments.getContent().get(comments.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR_RESPONSE_HEADER, KeysetCursor.of(last.getCreated(), last.getId()).encode());
+        }
+
+        return response.body(commentMapper.toDtos(comments.getContent()));
+    }
+
     @PostMapping("/{id}/comment")
     public CommentForResponseDto createComment(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
@@ -118,6 +156,7 @@ public class ItemController {
             if (itemDto.getAvailable() == null) {
                 item.setAvailable(oldItem.getAvailable());
             }
+            item.setCommentCount(oldItem.getCommentCount());
         }
 
         item.setOwner(userService.getUserById(ownerId));
@@ -28,5 +28,7 @@ public class ItemDto {
 
     private List<CommentForResponseDto> comments;
 
+    private Long commentCount;
+
     private Long requestId;
 }
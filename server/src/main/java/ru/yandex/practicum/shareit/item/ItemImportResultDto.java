@@ -0,0 +1,19 @@
+package ru.yandex.practicum.shareit.item;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class ItemImportResultDto {
+
+    private Integer index;
+
+    private Long id;
+
+    private String error;
+}
@@ -0,0 +1,200 @@
+package ru.yandex.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.shareit.request.ItemRequest;
+import ru.yandex.practicum.shareit.request.ItemRequestService;
+import ru.yandex.practicum.shareit.user.User;
+import ru.yandex.practicum.shareit.user.UserService;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports items of a single owner from a JSON array or an NDJSON stream
+ * Rows are parsed and validated one by one and saved in chunks, each chunk in its own transaction,
+ * so neither the request body nor the persistence context grows with the number of rows
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemImporter {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ItemRequestService itemRequestService;
+    private final ItemMapper itemMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * Creates an item for every valid row and returns the result of each row in input order
+     * If the owner is not found throws NotFoundException
+     * Malformed JSON stops the import, chunks saved before it are kept
+     *
+     * @param ownerId
+     * @param body
+     * @return list of row results
+     */
+    public List<ItemImportResultDto> importItems(Long ownerId, InputStream body) throws IOException {
+        User owner = userService.getUserById(ownerId);
+
+        List<ItemImportResultDto> results = new ArrayList<>();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (MappingIterator<ItemDto> rows = objectMapper.readerFor(ItemDto.class).readValues(body)) {
+            int index = 0;
+            while (true) {
+                ItemDto itemDto;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    itemDto = rows.nextValue();
+                } catch (JsonParseException e) {
+                    results.add(toResult(index, null, "Malformed JSON: " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    results.add(toResult(index++, null, "Invalid item: " + e.getOriginalMessage()));
+                    continue;
+                }
+
+                String error = validate(itemDto);
+                if (error != null) {
+                    results.add(toResult(index++, null, error));
+                    continue;
+                }
+
+                chunk.add(new ImportRow(index++, itemDto));
+                if (chunk.size() == CHUNK_SIZE) {
+                    save(chunk, owner, results);
+                    chunk.clear();
+                }
+            }
+        }
+
+        save(chunk, owner, results);
+
+        results.sort(Comparator.comparing(ItemImportResultDto::getIndex));
+        log.info("Imported {} rows for user {}", results.size(), ownerId);
+        return results;
+    }
+
+    private void save(List<ImportRow> chunk, User owner, List<ItemImportResultDto> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<Long> requestIds = chunk.stream()
+                .map(row -> row.itemDto.getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestIds.isEmpty()
+                ? Map.of()
+                : itemRequestService.getItemRequestsByIds(requestIds);
+
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        List<Item> items = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            Long requestId = row.itemDto.getRequestId();
+            if (requestId != null && !requests.containsKey(requestId)) {
+                results.add(toResult(row.index, null,
+                        String.format("Item request with id %d does not exist", requestId)));
+                continue;
+            }
+
+            Item item = itemMapper.toItem(row.itemDto);
+            item.setOwner(owner);
+            item.setRequest(requestId == null ? null : requests.get(requestId));
+
+            accepted.add(row);
+            items.add(item);
+        }
+
+        List<Item> createdItems = itemService.createItems(items);
+        for (int i = 0; i < accepted.size(); i++) {
+            results.add(toResult(accepted.get(i).index, createdItems.get(i).getId(), null));
+        }
+
+        entityManager.clear();
+    }
+
+    /**
+     * Applies the rules the gateway checks for POST /items
+     *
+     * @return error message or null if the row is valid
+     */
+    private String validate(ItemDto itemDto) {
+        if (itemDto == null) {
+            return "Item cannot be null";
+        }
+        if (itemDto.getId() != null) {
+            return "Id must be null";
+        }
+        if (isBlank(itemDto.getName())) {
+            return "Name cannot be empty";
+        }
+        if (itemDto.getName().length() < 2 || itemDto.getName().length() > 100) {
+            return "Name must contain at least 2 and no more than 100 characters";
+        }
+        if (isBlank(itemDto.getDescription())) {
+            return "Description cannot be empty";
+        }
+        if (itemDto.getDescription().length() < 2 || itemDto.getDescription().length() > 200) {
+            return "Description must contain at least 2 and no more than 200 characters";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Available cannot be empty";
+        }
+        if (itemDto.getLastBooking() != null || itemDto.getNextBooking() != null) {
+            return "Bookings must be null";
+        }
+        if (itemDto.getComments() != null) {
+            return "Comments must be null";
+        }
+        if (itemDto.getCommentCount() != null) {
+            return "Comment count must be null";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static ItemImportResultDto toResult(int index, Long id, String error) {
+        ItemImportResultDto result = new ItemImportResultDto();
+
+        result.setIndex(index);
+        result.setId(id);
+        result.setError(error);
+
+        return result;
+    }
+
+    private static final class ImportRow {
+
+        private final int index;
+        private final ItemDto itemDto;
+
+        private ImportRow(int index, ItemDto itemDto) {
+            this.index = index;
+            this.itemDto = itemDto;
+        }
+    }
+}
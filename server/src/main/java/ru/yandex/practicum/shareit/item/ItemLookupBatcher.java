@@ -0,0 +1,216 @@
+package ru.yandex.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.shareit.batch.BatchLoader;
+import ru.yandex.practicum.shareit.booking.Booking;
+import ru.yandex.practicum.shareit.booking.BookingService;
+import ru.yandex.practicum.shareit.request.ItemRequest;
+import ru.yandex.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Lookups of a single item or request that concurrent callers share with BatchLoader
+ * GET /items/{id} and GET /requests/{id} for different ids then cost one query per batch instead of one per call
+ * The loaded entities belong to the session of the caller that ran the query, so they are copied
+ * into detached entities holding only the mapped fields and ids before they are handed to other callers
+ * Comments are a preview of shareit.comments.preview-size newest ones, the rest are read page by page
+ */
+@Component
+public class ItemLookupBatcher {
+
+    private static final Sort SORT_BY_CREATED = Sort.by(Sort.Direction.DESC, "created", "id");
+    private static final Sort SORT_BY_ID = Sort.by("id").ascending();
+
+    private final CommentRepository commentRepository;
+    private final int commentPreviewSize;
+
+    private final BatchLoader<Long, List<Comment>> commentsByItemId;
+    private final BatchLoader<Long, Booking> lastBookingByItemId;
+    private final BatchLoader<Long, Booking> nextBookingByItemId;
+    private final BatchLoader<Long, List<Item>> itemsByRequestId;
+
+    public ItemLookupBatcher(
+            ItemRepository itemRepository,
+            CommentRepository commentRepository,
+            BookingService bookingService,
+            @Value("${shareit.batch.max-size}") int maxSize,
+            @Value("${shareit.batch.window}") Duration window,
+            @Value("${shareit.batch.timeout}") Duration timeout,
+            @Value("${shareit.comments.preview-size}") int commentPreviewSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.commentRepository = commentRepository;
+        this.commentPreviewSize = commentPreviewSize;
+
+        commentsByItemId = new BatchLoader<>("commentsByItemId",
+                itemId -> detachComments(commentRepository.findByItemId(itemId, PageRequest.of(0, commentPreviewSize,
+                        SORT_BY_CREATED)).getContent()),
+                itemIds -> detachValues(getCommentsByItemIds(itemIds), ItemLookupBatcher::detachComments),
+                maxSize, window, timeout, meterRegistry);
+        lastBookingByItemId = new BatchLoader<>("lastBookingByItemId",
+                itemId -> detach(bookingService.getLastBookingByItemId(itemId)),
+                itemIds -> detachValues(bookingService.getLastBookingsByItemIds(itemIds), ItemLookupBatcher::detach),
+                maxSize, window, timeout, meterRegistry);
+        nextBookingByItemId = new BatchLoader<>("nextBookingByItemId",
+                itemId -> detach(bookingService.getNextBookingByItemId(itemId)),
+                itemIds -> detachValues(bookingService.getNextBookingsByItemIds(itemIds), ItemLookupBatcher::detach),
+                maxSize, window, timeout, meterRegistry);
+        itemsByRequestId = new BatchLoader<>("itemsByRequestId",
+                requestId -> detachItems(itemRepository.findByRequestId(requestId, SORT_BY_ID)),
+                requestIds -> detachValues(itemRepository.findByRequestIdIn(requestIds, SORT_BY_ID).stream()
+                        .collect(Collectors.groupingBy(item -> item.getRequest().getId())),
+                        ItemLookupBatcher::detachItems),
+                maxSize, window, timeout, meterRegistry);
+    }
+
+    /**
+     * Returns the newest comments of the item, newest first
+     *
+     * @param itemId
+     * @return list of comments
+     */
+    public List<Comment> getCommentsByItemId(Long itemId) {
+        return copy(commentsByItemId.load(itemId));
+    }
+
+    /**
+     * Returns the newest comments of each of the items, newest first, without waiting for other callers
+     *
+     * @param itemIds
+     * @return comments by item ID
+     */
+    public Map<Long, List<Comment>> getCommentsByItemIds(List<Long> itemIds) {
+        List<Long> commentIds = commentRepository.findLatestIdsByItemIdIn(itemIds, commentPreviewSize);
+        if (commentIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return commentRepository.findByIdIn(commentIds, SORT_BY_CREATED).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+    }
+
+    /**
+     * Returns the last approved booking of the item or null
+     *
+     * @param itemId
+     * @return booking
+     */
+    public Booking getLastBookingByItemId(Long itemId) {
+        return lastBookingByItemId.load(itemId);
+    }
+
+    /**
+     * Returns the next approved booking of the item or null
+     *
+     * @param itemId
+     * @return booking
+     */
+    public Booking getNextBookingByItemId(Long itemId) {
+        return nextBookingByItemId.load(itemId);
+    }
+
+    /**
+     * Returns items created for the request, in ascending order of id
+     *
+     * @param requestId
+     * @return list of items
+     */
+    public List<Item> getItemsByRequestId(Long requestId) {
+        return copy(itemsByRequestId.load(requestId));
+    }
+
+    private static <T> List<T> copy(List<T> values) {
+        return values == null ? new ArrayList<>() : new ArrayList<>(values);
+    }
+
+    private static <K, V> Map<K, V> detachValues(Map<K, V> values, UnaryOperator<V> detach) {
+        Map<K, V> detached = new HashMap<>();
+        values.forEach((key, value) -> detached.put(key, detach.apply(value)));
+        return detached;
+    }
+
+    private static List<Comment> detachComments(List<Comment> comments) {
+        return comments.stream()
+                .map(ItemLookupBatcher::detach)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Item> detachItems(List<Item> items) {
+        return items.stream()
+                .map(ItemLookupBatcher::detach)
+                .collect(Collectors.toList());
+    }
+
+    private static Comment detach(Comment comment) {
+        Comment detached = new Comment();
+        User author = new User();
+
+        author.setId(comment.getAuthor().getId());
+        author.setName(comment.getAuthor().getName());
+        detached.setId(comment.getId());
+        detached.setText(comment.getText());
+        detached.setCreated(comment.getCreated());
+        detached.setItem(itemReference(comment.getItem().getId()));
+        detached.setAuthor(author);
+
+        return detached;
+    }
+
+    private static Booking detach(Booking booking) {
+        if (booking == null) {
+            return null;
+        }
+
+        Booking detached = new Booking();
+
+        detached.setId(booking.getId());
+        detached.setStart(booking.getStart());
+        detached.setEnd(booking.getEnd());
+        detached.setStatus(booking.getStatus());
+        detached.setItem(itemReference(booking.getItem().getId()));
+        detached.setBooker(userReference(booking.getBooker().getId()));
+
+        return detached;
+    }
+
+    private static Item detach(Item item) {
+        Item detached = new Item();
+
+        detached.setId(item.getId());
+        detached.setName(item.getName());
+        detached.setDescription(item.getDescription());
+        detached.setAvailable(item.getAvailable());
+        detached.setCommentCount(item.getCommentCount());
+        detached.setOwner(userReference(item.getOwner().getId()));
+        if (item.getRequest() != null) {
+            ItemRequest request = new ItemRequest();
+            request.setId(item.getRequest().getId());
+            detached.setRequest(request);
+        }
+
+        return detached;
+    }
+
+    private static Item itemReference(Long id) {
+        Item item = new Item();
+        item.setId(id);
+        return item;
+    }
+
+    private static User userReference(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
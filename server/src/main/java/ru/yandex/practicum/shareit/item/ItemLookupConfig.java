@@ -0,0 +1,75 @@
+package ru.yandex.practicum.shareit.item;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import ru.yandex.practicum.shareit.metrics.StatementCounter;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of the item lookups, every thread holds a database connection while it runs a lookup
+ * When the pool and its queue are full the lookup runs on the calling thread
+ * The pool is not a bean, so it does not replace the application task executor,
+ * it is exported as the executor.* metrics named itemLookup
+ * Under open-in-view a request keeps its connection while its lookups take their own,
+ * so the connection pool has a connection for every request thread and every lookup thread
+ */
+@Configuration
+public class ItemLookupConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ItemLookupExecutor itemLookupExecutor(
+            @Value("${shareit.item-lookup.pool-size}") int poolSize,
+            @Value("${shareit.item-lookup.queue-capacity}") int queueCapacity,
+            @Value("${shareit.item-lookup.timeout}") Duration timeout,
+            StatementCounter statementCounter,
+            MeterRegistry meterRegistry
+    ) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+                poolSize, poolSize, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "item-lookup-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        new ExecutorServiceMetrics(threadPool, "itemLookup", null).bindTo(meterRegistry);
+
+        return new ItemLookupExecutor(threadPool, statementCounter, timeout, meterRegistry);
+    }
+
+    /**
+     * Sizes the connection pool as shareit.datasource.request-connections plus shareit.item-lookup.pool-size
+     *
+     * @param environment
+     * @return post processor of the data source
+     */
+    @Bean
+    public static BeanPostProcessor itemLookupConnections(Environment environment) {
+        int requestConnections =
+                environment.getRequiredProperty("shareit.datasource.request-connections", Integer.class);
+        int poolSize = environment.getRequiredProperty("shareit.item-lookup.pool-size", Integer.class);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    ((HikariDataSource) bean).setMaximumPoolSize(requestConnections + poolSize);
+                }
+                return bean;
+            }
+        };
+    }
+}
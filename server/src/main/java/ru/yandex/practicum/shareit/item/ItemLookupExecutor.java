@@ -0,0 +1,106 @@
+package ru.yandex.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ru.yandex.practicum.shareit.metrics.StatementCounter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs independent lookups that enrich items at the same time, each in its own read-only transaction
+ * The first lookup runs on the calling thread, the others on the bounded pool created by ItemLookupConfig
+ * The duration of every run is recorded as the shareit.item.enrichment timer tagged by stage and outcome
+ * Statements of the pool lookups are counted for the calling thread
+ */
+public class ItemLookupExecutor {
+
+    private static final String METRIC_NAME = "shareit.item.enrichment";
+
+    private final Executor executor;
+    private final StatementCounter statementCounter;
+    private final Duration timeout;
+    private final MeterRegistry meterRegistry;
+
+    public ItemLookupExecutor(
+            Executor executor, StatementCounter statementCounter, Duration timeout, MeterRegistry meterRegistry
+    ) {
+        this.executor = executor;
+        this.statementCounter = statementCounter;
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the lookups and waits for all of them
+     * Rethrows the exception of a failed lookup
+     * If the lookups take longer than the timeout throws IllegalStateException
+     * On failure or timeout the lookups that have not started are skipped,
+     * the running ones are not interrupted and finish in the background
+     *
+     * @param stage
+     * @param lookups
+     */
+    public void runAll(String stage, Runnable... lookups) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(lookups.length - 1);
+        try {
+            for (int i = 1; i < lookups.length; i++) {
+                futures.add(CompletableFuture.runAsync(statementCounter.propagate(lookups[i]), executor));
+            }
+            lookups[0].run();
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            outcome = "success";
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            throw new IllegalStateException(String.format("Item %s lookups did not finish in %d ms",
+                    stage, timeout.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("Interrupted while waiting for item %s lookups", stage));
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Time to load the bookings and comments of items")
+                    .tag("stage", stage)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Stops the pool, queued lookups are dropped and the pool threads are interrupted
+     */
+    public void shutdown() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+}
@@ -25,6 +25,7 @@ public class ItemMapper {
         itemDto.setLastBooking(bookingForItemsMapper.toDto(item.getLastBooking()));
         itemDto.setNextBooking(bookingForItemsMapper.toDto(item.getNextBooking()));
         itemDto.setComments(commentMapper.toDtos(item.getComments()));
+        itemDto.setCommentCount(item.getCommentCount());
 
         if (item.getRequest() != null) {
             itemDto.setRequestId(item.getRequest().getId());
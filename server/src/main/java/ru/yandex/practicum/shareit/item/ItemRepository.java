@@ -3,8 +3,11 @@ package ru.yandex.practicum.shareit.item;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -32,6 +35,35 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "order by i.id")
     List<Item> searchItemsByText(String text, Pageable page);
 
+    /**
+     * Returns a list of items by IDs
+     *
+     * @param ids
+     * @param sort
+     * @return list of items
+     */
+    List<Item> findByIdIn(Collection<Long> ids, Sort sort);
+
+    /**
+     * Returns a list of items with IDs greater than the given one
+     * Used to walk through the whole table page by page without offset
+     *
+     * @param id
+     * @param page
+     * @return list of items
+     */
+    List<Item> findByIdGreaterThan(Long id, Pageable page);
+
+    /**
+     * Returns IDs of items greater than the given one in ascending order
+     *
+     * @param id
+     * @param page
+     * @return list of IDs
+     */
+    @Query("select i.id from Item i where i.id > ?1 order by i.id")
+    List<Long> findIdsGreaterThan(Long id, Pageable page);
+
     /**
      * Checks for the existence of item by id and user id
      *
@@ -42,11 +74,73 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     boolean existsByIdAndOwnerId(Long id, Long ownerId);
 
     /**
-     * Removes user items
+     * Hides user items, they are removed later by the purger
+     *
+     * @param ownerId
+     */
+    @Modifying
+    @Query(value = "update items set is_deleted = true where owner_id = ?1", nativeQuery = true)
+    void markDeletedByOwnerId(Long ownerId);
+
+    /**
+     * Adds a new comment to the comment count of the item
+     * The count is changed in place, concurrent comments do not overwrite each other
+     *
+     * @param itemId
+     */
+    @Modifying
+    @Query(value = "update items set comment_count = comment_count + 1 where id = ?1", nativeQuery = true)
+    void incrementCommentCount(Long itemId);
+
+    /**
+     * Recounts the comments of up to limit of items of other owners commented by the user,
+     * leaving out the user's comments that are about to be removed
+     * Only items with a different count are changed, so the chunks stop once all counts are right
+     *
+     * @param authorId
+     * @param limit
+     * @return number of recounted items
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update items set comment_count = (" +
+            "select count(*) from comments c where c.item_id = items.id and c.author_id <> ?1" +
+            ") where id in (" +
+            "select i.id from items i " +
+            "where i.owner_id <> ?1 " +
+            "and exists (select 1 from comments c where c.item_id = i.id and c.author_id = ?1) " +
+            "and i.comment_count <> (" +
+            "select count(*) from comments c where c.item_id = i.id and c.author_id <> ?1) " +
+            "limit ?2)", nativeQuery = true)
+    int recountCommentsChunkByAuthorId(Long authorId, int limit);
+
+    /**
+     * Detaches up to limit of items of any owner from the requests of the user
+     *
+     * @param requestorId
+     * @param limit
+     * @return number of detached items
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update items set request_id = null where id in (" +
+            "select i.id from items i join requests r on r.id = i.request_id " +
+            "where r.requestor_id = ?1 " +
+            "limit ?2)", nativeQuery = true)
+    int clearRequestChunkByRequestorId(Long requestorId, int limit);
+
+    /**
+     * Removes up to limit of user items, hidden or not
      *
      * @param ownerId
+     * @param limit
+     * @return number of removed items
      */
-    void deleteByOwnerId(Long ownerId);
+    @Transactional
+    @Modifying
+    @Query(value = "delete from items where id in (select i.id from items i where i.owner_id = ?1 limit ?2)",
+            nativeQuery = true)
+    int deleteChunkByOwnerId(Long ownerId, int limit);
 
     /**
      * Returns a list of items for request IDs
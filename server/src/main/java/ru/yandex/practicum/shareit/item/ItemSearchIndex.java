@@ -0,0 +1,440 @@
+package ru.yandex.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory trigram index over the name and description of items
+ * Case-insensitive substring search among available items, ordered by id
+ * Unlike the LIKE pattern of {@link ItemRepository#searchItemsByText}, % and _ in the text match literally
+ * Changes are applied once the transaction that made them commits
+ * Until the first rebuild finishes the index is not loaded and searches are left to the database
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Guarded by lock
+     */
+    private Segment segment = new Segment();
+
+    /**
+     * Changes applied while a rebuild runs, replayed on the rebuilt segment, guarded by lock
+     */
+    private List<Consumer<Segment>> changesDuringRebuild;
+
+    private volatile boolean loaded;
+
+    /**
+     * Rebuilds the index from the items table into a new segment without blocking searches and changes
+     * The changes applied meanwhile are replayed on the new segment before it replaces the current one
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment rebuilt = new Segment();
+        try {
+            Long lastId = 0L;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findByIdGreaterThan(lastId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id").ascending()));
+                for (Item item : batch) {
+                    rebuilt.add(IndexedItem.of(item));
+                    lastId = item.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+            changesDuringRebuild = null;
+            segment = rebuilt;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Item search index rebuilt: {} items, {} trigrams", rebuilt.items.size(), rebuilt.postings.size());
+    }
+
+    /**
+     * Adds or replaces the item in the index once the current transaction commits
+     *
+     * @param item
+     */
+    public void index(Item item) {
+        IndexedItem indexedItem = IndexedItem.of(item);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexNow(indexedItem);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexNow(indexedItem);
+            }
+        });
+    }
+
+    /**
+     * Checks the item the way the index does, used to drop rows that changed after they were found
+     *
+     * @param item
+     * @param text
+     * @return true if the item is available and its name or description contains the text
+     */
+    public static boolean matches(Item item, String text) {
+        return IndexedItem.of(item).matches(normalize(text));
+    }
+
+    /**
+     * Removes all items of the owner from the index once the current transaction commits
+     *
+     * @param ownerId
+     */
+    public void removeByOwnerId(Long ownerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeByOwnerIdNow(ownerId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeByOwnerIdNow(ownerId);
+            }
+        });
+    }
+
+    /**
+     * Returns IDs of available items whose name or description contains the text
+     * IDs are sorted in ascending order and cut to the requested page
+     * Returns empty if the index is not loaded yet, the caller searches the database
+     *
+     * @param text
+     * @param page
+     * @return list of item IDs
+     */
+    public Optional<List<Long>> search(String text, Pageable page) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+
+        String needle = normalize(text);
+
+        lock.readLock().lock();
+        try {
+            if (needle.length() < GRAM_LENGTH) {
+                return Optional.of(scan(segment, needle, page));
+            }
+
+            List<PostingList> lists = new ArrayList<>();
+            for (Long gram : grams(needle)) {
+                PostingList list = segment.postings.get(gram);
+                if (list == null) {
+                    return Optional.of(new ArrayList<>());
+                }
+                lists.add(list);
+            }
+
+            return Optional.of(intersect(segment, lists, needle, page));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walks the shortest posting list in id order, keeps the IDs present in every other list
+     * and verifies the text of each candidate, stopping as soon as the page is filled
+     */
+    private static List<Long> intersect(Segment segment, List<PostingList> lists, String needle, Pageable page) {
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList shortest = lists.get(0);
+
+        List<Long> ids = new ArrayList<>();
+        long skip = page.getOffset();
+        for (int i = 0; i < shortest.size(); i++) {
+            long id = shortest.get(i);
+            if (!containsInAll(lists, id) || !segment.items.get(id).matches(needle)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            ids.add(id);
+            if (ids.size() == page.getPageSize()) {
+                break;
+            }
+        }
+
+        return ids;
+    }
+
+    /**
+     * Search texts shorter than a trigram have no posting list,
+     * such texts are not selective, so all items are checked in id order until the page is filled
+     */
+    private static List<Long> scan(Segment segment, String needle, Pageable page) {
+        List<Long> ids = new ArrayList<>();
+        long skip = page.getOffset();
+        for (IndexedItem indexedItem : segment.items.values()) {
+            if (!indexedItem.matches(needle)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            ids.add(indexedItem.id);
+            if (ids.size() == page.getPageSize()) {
+                break;
+            }
+        }
+
+        return ids;
+    }
+
+    private static boolean containsInAll(List<PostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void removeByOwnerIdNow(Long ownerId) {
+        apply(current -> current.removeByOwnerId(ownerId));
+    }
+
+    private void indexNow(IndexedItem indexedItem) {
+        apply(current -> current.add(indexedItem));
+    }
+
+    private void apply(Consumer<Segment> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(segment);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Packs every three consecutive chars of the text into a single long key
+     */
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    /**
+     * Items and their posting lists, replaced as a whole by a rebuild
+     */
+    private static final class Segment {
+
+        private final NavigableMap<Long, IndexedItem> items = new TreeMap<>();
+        private final Map<Long, Set<Long>> itemIdsByOwner = new HashMap<>();
+        private final Map<Long, PostingList> postings = new HashMap<>();
+
+        private void add(IndexedItem indexedItem) {
+            IndexedItem previous = items.remove(indexedItem.id);
+            if (previous != null) {
+                removePostings(previous);
+                Set<Long> ownerItemIds = itemIdsByOwner.get(previous.ownerId);
+                if (ownerItemIds != null) {
+                    ownerItemIds.remove(previous.id);
+                }
+            }
+
+            items.put(indexedItem.id, indexedItem);
+            itemIdsByOwner.computeIfAbsent(indexedItem.ownerId, key -> new HashSet<>()).add(indexedItem.id);
+
+            if (!indexedItem.available) {
+                return;
+            }
+
+            for (Long gram : indexedItem.grams()) {
+                postings.computeIfAbsent(gram, key -> new PostingList()).add(indexedItem.id);
+            }
+        }
+
+        private void removeByOwnerId(Long ownerId) {
+            Set<Long> itemIds = itemIdsByOwner.remove(ownerId);
+            if (itemIds == null) {
+                return;
+            }
+
+            for (Long itemId : itemIds) {
+                removePostings(items.remove(itemId));
+            }
+        }
+
+        private void removePostings(IndexedItem indexedItem) {
+            if (indexedItem == null || !indexedItem.available) {
+                return;
+            }
+
+            for (Long gram : indexedItem.grams()) {
+                PostingList list = postings.get(gram);
+                if (list != null) {
+                    list.remove(indexedItem.id);
+                    if (list.size() == 0) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class IndexedItem {
+
+        private final Long id;
+        private final Long ownerId;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        private IndexedItem(Long id, Long ownerId, String name, String description, boolean available) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+        }
+
+        private static IndexedItem of(Item item) {
+            return new IndexedItem(
+                    item.getId(),
+                    item.getOwner() == null ? null : item.getOwner().getId(),
+                    normalize(item.getName()),
+                    normalize(item.getDescription()),
+                    Boolean.TRUE.equals(item.getAvailable())
+            );
+        }
+
+        private boolean matches(String needle) {
+            return available && (name.contains(needle) || description.contains(needle));
+        }
+
+        private Set<Long> grams() {
+            Set<Long> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+    }
+
+    /**
+     * Sorted array of item IDs
+     * New items get increasing IDs, so adding is an append in the common case
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private long get(int index) {
+            return ids[index];
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    return;
+                }
+                insert(-index - 1, id);
+                return;
+            }
+            insert(size, id);
+        }
+
+        private void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        private void insert(int index, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+}
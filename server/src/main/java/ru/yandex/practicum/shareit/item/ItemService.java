@@ -1,6 +1,8 @@
 package ru.yandex.practicum.shareit.item;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 
 import java.util.List;
 import java.util.Map;
@@ -36,6 +38,15 @@ public interface ItemService {
      */
     Item createItem(Item item);
 
+    /**
+     * Creates new items in a single transaction
+     * Rows are inserted in JDBC batches instead of one round trip per item
+     *
+     * @param items
+     * @return list of new items
+     */
+    List<Item> createItems(List<Item> items);
+
     /**
      * Updates the item by the user
      * If the user is not found throws NotFoundException
@@ -59,8 +70,7 @@ public interface ItemService {
 
     /**
      * Creates a new comment for the item by the user
-     * If the user is not found throws NotFoundException
-     * If the item is not found throws NotFoundException
+     * The item and the author must be loaded by the caller, they are not looked up again
      * If the user did not rent the item or the user's lease period
      * has not expired throws ValidationException
      *
@@ -70,7 +80,8 @@ public interface ItemService {
     Comment createComment(Comment comment);
 
     /**
-     * Returns a list of comments for item IDs
+     * Returns a list of the newest comments for item IDs
+     * Each item gets at most the preview size of comments, newest first
      *
      * @param itemIds
      * @return list of comments
@@ -78,13 +89,26 @@ public interface ItemService {
     Map<Long, List<Comment>> getCommentsByItemIds(List<Long> itemIds);
 
     /**
-     * Returns a list of comments for item ID
+     * Returns a list of the newest comments for item ID
+     * The item gets at most the preview size of comments, newest first
      *
      * @param itemId
      * @return list of comments
      */
     List<Comment> getCommentsByItemId(Long itemId);
 
+    /**
+     * Returns a list of comments for item ID after the cursor, or after the page offset without a cursor
+     * Results should be returned page by page, newest first
+     * If the item is not found throws NotFoundException
+     *
+     * @param itemId
+     * @param cursor
+     * @param page
+     * @return list of comments
+     */
+    Slice<Comment> getCommentsByItemId(Long itemId, KeysetCursor cursor, Pageable page);
+
     /**
      * Sets the list of bookings and comments to the list of items
      *
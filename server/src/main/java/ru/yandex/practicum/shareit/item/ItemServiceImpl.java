@@ -1,15 +1,18 @@
 package ru.yandex.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.shareit.booking.Booking;
-import ru.yandex.practicum.shareit.booking.BookingRepository;
 import ru.yandex.practicum.shareit.booking.BookingService;
-import ru.yandex.practicum.shareit.booking.BookingStatus;
-import ru.yandex.practicum.shareit.user.UserRepository;
+import ru.yandex.practicum.shareit.booking.CompletedRentals;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
+import ru.yandex.practicum.shareit.request.ItemRequestMatcher;
+import ru.yandex.practicum.shareit.user.UserService;
 import ru.yandex.practicum.shareit.validator.NotFoundException;
 import ru.yandex.practicum.shareit.validator.ValidationException;
 
@@ -17,6 +20,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,15 +28,20 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
-    private final BookingRepository bookingRepository;
+    private final UserService userService;
     private final CommentRepository commentRepository;
     private final BookingService bookingService;
+    private final CompletedRentals completedRentals;
+    private final ItemSearchIndex itemSearchIndex;
+    private final LiveItemIds liveItemIds;
+    private final ItemLookupExecutor itemLookupExecutor;
+    private final ItemLookupBatcher itemLookupBatcher;
+    private final ItemRequestMatcher itemRequestMatcher;
 
     @Transactional(readOnly = true)
     @Override
     public List<Item> getItemsByUserId(Long userId, Pageable page) {
-        if (!userRepository.existsById(userId)) {
+        if (!userService.existsById(userId)) {
             throw new NotFoundException(String.format("User with id %d does not exist", userId));
         }
 
@@ -42,6 +51,10 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     @Override
     public Item getItemById(Long id) {
+        if (liveItemIds.isAbsent(id)) {
+            throw new NotFoundException(String.format("Item with id %d does not exist", id));
+        }
+
         return itemRepository.findById(id).orElseThrow(
                 () -> new NotFoundException(String.format("Item with id %d does not exist", id)));
     }
@@ -49,24 +62,59 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     @Override
     public Item createItem(Item item) {
-        return itemRepository.save(item);
+        Item createdItem = itemRepository.save(item);
+        liveItemIds.add(createdItem.getId());
+        itemSearchIndex.index(createdItem);
+        itemRequestMatcher.matchItems(List.of(createdItem));
+        return createdItem;
+    }
+
+    @Transactional
+    @Override
+    public List<Item> createItems(List<Item> items) {
+        List<Item> createdItems = itemRepository.saveAll(items);
+        for (Item createdItem : createdItems) {
+            liveItemIds.add(createdItem.getId());
+            itemSearchIndex.index(createdItem);
+        }
+        itemRequestMatcher.matchItems(createdItems);
+        return createdItems;
     }
 
     @Transactional
     @Override
     public Item updateItem(Item item) {
-        if (!itemRepository.existsByIdAndOwnerId(item.getId(), item.getOwner().getId())) {
+        if (liveItemIds.isAbsent(item.getId())
+                || !itemRepository.existsByIdAndOwnerId(item.getId(), item.getOwner().getId())) {
             throw new NotFoundException(String.format("Item with id %d and user id %d does not exist",
                     item.getId(), item.getOwner().getId()));
         }
 
-        return itemRepository.save(item);
+        Item updatedItem = itemRepository.save(item);
+        itemSearchIndex.index(updatedItem);
+        return updatedItem;
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<Item> searchItems(String text, Pageable page) {
-        return itemRepository.searchItemsByText(text, page);
+        Optional<List<Long>> indexedIds = itemSearchIndex.search(text, page);
+        if (indexedIds.isEmpty()) {
+            // the index is not loaded yet
+            return itemRepository.searchItemsByText(text, page).stream()
+                    .filter(item -> ItemSearchIndex.matches(item, text))
+                    .collect(Collectors.toList());
+        }
+
+        List<Long> itemIds = indexedIds.get();
+        if (itemIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // the index may lag behind a change committed a moment ago
+        return itemRepository.findByIdIn(itemIds, Sort.by("id").ascending()).stream()
+                .filter(item -> ItemSearchIndex.matches(item, text))
+                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -75,17 +123,7 @@ public class ItemServiceImpl implements ItemService {
         Long userId = comment.getAuthor().getId();
         Long itemId = comment.getItem().getId();
 
-        if (!userRepository.existsById(userId)) {
-            throw new NotFoundException(String.format("User with id %d does not exist", userId));
-        }
-
-        if (!itemRepository.existsById(itemId)) {
-            throw new NotFoundException(String.format("Item with id %d does not exist", itemId));
-        }
-
-        if (!bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(
-                itemId, userId, BookingStatus.APPROVED, LocalDateTime.now())
-        ) {
+        if (!completedRentals.isCompleted(userId, itemId)) {
             throw new ValidationException(String.format(
                     "The user with id %d has not rented an item with id %d or the user's lease has not expired",
                     userId, itemId)
@@ -93,7 +131,9 @@ public class ItemServiceImpl implements ItemService {
         }
 
         comment.setCreated(LocalDateTime.now());
-        return commentRepository.save(comment);
+        Comment createdComment = commentRepository.save(comment);
+        itemRepository.incrementCommentCount(itemId);
+        return createdComment;
     }
 
     @Override
@@ -104,18 +144,32 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public List<Item> getItemsByRequestId(Long requestId) {
-        return new ArrayList<>(itemRepository.findByRequestId(requestId, Sort.by("id").ascending()));
+        return itemLookupBatcher.getItemsByRequestId(requestId);
     }
 
     @Override
     public Map<Long, List<Comment>> getCommentsByItemIds(List<Long> itemIds) {
-        return commentRepository.findByItemIdIn(itemIds, Sort.by("created").descending()).stream()
-                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        return itemLookupBatcher.getCommentsByItemIds(itemIds);
     }
 
     @Override
     public List<Comment> getCommentsByItemId(Long itemId) {
-        return new ArrayList<>(commentRepository.findByItemId(itemId, Sort.by("created").descending()));
+        return itemLookupBatcher.getCommentsByItemId(itemId);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<Comment> getCommentsByItemId(Long itemId, KeysetCursor cursor, Pageable page) {
+        if (liveItemIds.isAbsent(itemId) || !itemRepository.existsById(itemId)) {
+            throw new NotFoundException(String.format("Item with id %d does not exist", itemId));
+        }
+
+        if (cursor == null) {
+            return commentRepository.findByItemId(itemId, page);
+        }
+
+        return commentRepository.findByItemIdBefore(itemId, cursor.getTimestamp(), cursor.getId(),
+                PageRequest.of(0, page.getPageSize(), page.getSort()));
     }
 
     @Override
@@ -128,22 +182,29 @@ public class ItemServiceImpl implements ItemService {
                 .map(Item::getId)
                 .collect(Collectors.toList());
 
-        Map<Long, List<Booking>> bookings = bookingService.getBookingsByItemIds(itemIds);
-        Map<Long, List<Comment>> comments = getCommentsByItemIds(itemIds);
-
-        for (Item item : items) {
-            setLastAndNextBookings(item, bookings.get(item.getId()));
-            setComments(item, comments.get(item.getId()));
-        }
+        itemLookupExecutor.runAll("items",
+                () -> {
+                    Map<Long, List<Comment>> comments = getCommentsByItemIds(itemIds);
+                    items.forEach(item -> setComments(item, comments.get(item.getId())));
+                },
+                () -> {
+                    Map<Long, Booking> lastBookings = bookingService.getLastBookingsByItemIds(itemIds);
+                    items.forEach(item -> item.setLastBooking(lastBookings.get(item.getId())));
+                },
+                () -> {
+                    Map<Long, Booking> nextBookings = bookingService.getNextBookingsByItemIds(itemIds);
+                    items.forEach(item -> item.setNextBooking(nextBookings.get(item.getId())));
+                }
+        );
     }
 
     @Override
     public void setBookingsAndCommentsToItem(Item item) {
-        List<Booking> bookings = bookingService.getBookingsByItemId(item.getId());
-        List<Comment> comments = getCommentsByItemId(item.getId());
-
-        setLastAndNextBookings(item, bookings);
-        setComments(item, comments);
+        itemLookupExecutor.runAll("item",
+                () -> setComments(item, getCommentsByItemId(item.getId())),
+                () -> item.setLastBooking(itemLookupBatcher.getLastBookingByItemId(item.getId())),
+                () -> item.setNextBooking(itemLookupBatcher.getNextBookingByItemId(item.getId()))
+        );
     }
 
     @Override
@@ -152,11 +213,6 @@ public class ItemServiceImpl implements ItemService {
         setComments(item, comments);
     }
 
-    private void setLastAndNextBookings(Item item, List<Booking> bookings) {
-        item.setLastBooking(bookingService.getLastBooking(bookings));
-        item.setNextBooking(bookingService.getNextBooking(bookings));
-    }
-
     private void setComments(Item item, List<Comment> comments) {
         if (comments != null) {
             item.setComments(comments);
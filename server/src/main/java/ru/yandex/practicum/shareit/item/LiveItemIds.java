@@ -0,0 +1,23 @@
+package ru.yandex.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.shareit.ids.LiveIdSet;
+
+import java.util.List;
+
+/**
+ * IDs of existing items
+ */
+@Component
+@RequiredArgsConstructor
+public class LiveItemIds extends LiveIdSet {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    protected List<Long> findIdsGreaterThan(Long id, int limit) {
+        return itemRepository.findIdsGreaterThan(id, PageRequest.of(0, limit));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.yandex.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records the number of SQL statements executed per request
+ * as the shareit.http.server.statements summary tagged by method and URI pattern
+ */
+@Component
+@RequiredArgsConstructor
+public class StatementCountInterceptor implements HandlerInterceptor {
+
+    private static final String METRIC_NAME = "shareit.http.server.statements";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statementCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex
+    ) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        DistributionSummary.builder(METRIC_NAME)
+                .description("SQL statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                .register(meterRegistry)
+                .record(statementCounter.getCount());
+
+        statementCounter.reset();
+    }
+}
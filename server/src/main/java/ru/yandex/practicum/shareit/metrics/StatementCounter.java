@@ -0,0 +1,64 @@
+package ru.yandex.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts SQL statements prepared by Hibernate on the current thread
+ * Registered as the Hibernate statement inspector, leaves the SQL unchanged
+ * A task wrapped by {@link #propagate} adds its statements to the count of the thread that created it
+ */
+@Component
+public class StatementCounter implements StatementInspector {
+
+    private final ThreadLocal<AtomicInteger> count = ThreadLocal.withInitial(AtomicInteger::new);
+
+    @Override
+    public String inspect(String sql) {
+        count.get().incrementAndGet();
+        return sql;
+    }
+
+    /**
+     * Resets the number of statements of the current thread to zero
+     */
+    public void reset() {
+        count.remove();
+    }
+
+    /**
+     * Returns the number of statements prepared on the current thread since the last reset
+     *
+     * @return number of statements
+     */
+    public int getCount() {
+        return count.get().get();
+    }
+
+    /**
+     * Wraps the task to count its statements on the current thread wherever it runs
+     * A pool thread drops the borrowed count once the task is done
+     *
+     * @param task
+     * @return wrapped task
+     */
+    public Runnable propagate(Runnable task) {
+        AtomicInteger callerCount = count.get();
+
+        return () -> {
+            if (count.get() == callerCount) {
+                task.run();
+                return;
+            }
+
+            count.set(callerCount);
+            try {
+                task.run();
+            } finally {
+                count.remove();
+            }
+        };
+    }
+}
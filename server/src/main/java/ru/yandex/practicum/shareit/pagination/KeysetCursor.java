@@ -0,0 +1,67 @@
+package ru.yandex.practicum.shareit.pagination;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.yandex.practicum.shareit.validator.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page ordered by (timestamp, id)
+ * Clients get it as an opaque token and send it back to read the next page
+ * with a seek predicate instead of an offset
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "_";
+
+    private final LocalDateTime timestamp;
+    private final Long id;
+
+    private KeysetCursor(LocalDateTime timestamp, Long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public static KeysetCursor of(LocalDateTime timestamp, Long id) {
+        return new KeysetCursor(timestamp, id);
+    }
+
+    /**
+     * Parses the token returned by {@link #encode()}
+     * If the token is malformed throws ValidationException
+     *
+     * @param token
+     * @return cursor
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+
+            return new KeysetCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException(String.format("Invalid cursor %s", token));
+        }
+    }
+
+    /**
+     * Returns the cursor as an URL-safe token
+     *
+     * @return token
+     */
+    public String encode() {
+        String value = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,8 +4,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 import ru.yandex.practicum.shareit.user.UserService;
 
 import java.util.List;
@@ -26,28 +28,31 @@ import java.util.List;
 public class ItemRequestController {
 
     private static final String USER_ID_REQUEST_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_RESPONSE_HEADER = "X-Next-Cursor";
 
     private final ItemRequestService itemRequestService;
     private final UserService userService;
     private final ItemRequestMapper itemRequestMapper;
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getItemRequestsAll(
+    public ResponseEntity<List<ItemRequestDto>> getItemRequestsAll(
             @RequestHeader(USER_ID_REQUEST_HEADER) Long userId,
             @RequestParam(defaultValue = "0") Integer from,
-            @RequestParam(defaultValue = "20") Integer size
+            @RequestParam(defaultValue = "20") Integer size,
+            @RequestParam(required = false) String cursor
     ) {
-        Pageable page = PageRequest.of(from / size, size, Sort.by("created").descending());
+        Pageable page = PageRequest.of(from / size, size, ItemRequestFeed.SORT_BY_CREATED);
 
-        List<ItemRequest> itemRequests = itemRequestService.getItemRequestsAll(userId, page);
-        itemRequestService.setItemsToItemRequests(itemRequests);
-        return itemRequestMapper.toDtos(itemRequests);
+        Slice<ItemRequest> itemRequests = itemRequestService.getItemRequestsAll(userId, toCursor(cursor), page);
+        itemRequestService.setItemsToItemRequests(itemRequests.getContent());
+        return toResponse(itemRequests);
     }
 
     @GetMapping
     public List<ItemRequestDto> getItemRequestsByUserId(@RequestHeader(USER_ID_REQUEST_HEADER) Long userId) {
         List<ItemRequest> itemRequests = itemRequestService.getItemRequestsByUserId(userId);
         itemRequestService.setItemsToItemRequests(itemRequests);
+        itemRequestService.setSuggestedItemsToItemRequests(itemRequests);
         return itemRequestMapper.toDtos(itemRequests);
     }
 
@@ -58,6 +63,9 @@ public class ItemRequestController {
     ) {
         ItemRequest itemRequest = itemRequestService.getItemRequestById(id, userId);
         itemRequestService.setItemsToItemRequest(itemRequest);
+        if (userId.equals(itemRequest.getRequestor().getId())) {
+            itemRequestService.setSuggestedItemsToItemRequests(List.of(itemRequest));
+        }
         return itemRequestMapper.toDto(itemRequest);
     }
 
@@ -71,6 +79,21 @@ public class ItemRequestController {
         return itemRequestMapper.toDto(itemRequestService.createRequest(toItemRequest(itemRequestDto, userId)));
     }
 
+    private KeysetCursor toCursor(String cursor) {
+        return cursor == null ? null : KeysetCursor.decode(cursor);
+    }
+
+    private ResponseEntity<List<ItemRequestDto>> toResponse(Slice<ItemRequest> itemRequests) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (itemRequests.hasNext()) {
+            ItemRequest last = itemRequests.getContent().get(itemRequests.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR_RESPONSE_HEADER, KeysetCursor.of(last.getCreated(), last.getId()).encode());
+        }
+
+        return response.body(itemRequestMapper.toDtos(itemRequests.getContent()));
+    }
+
     private ItemRequest toItemRequest(ItemRequestDto itemRequestDto, Long authorId) {
         ItemRequest itemRequest = itemRequestMapper.toItemRequest(itemRequestDto);
         itemRequest.setRequestor(userService.getUserById(authorId));
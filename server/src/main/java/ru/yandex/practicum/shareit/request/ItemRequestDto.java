@@ -23,4 +23,6 @@ public class ItemRequestDto {
     private LocalDateTime created;
 
     private List<ItemDto> items = new ArrayList<>();
+
+    private List<ItemDto> suggestedItems = new ArrayList<>();
 }
@@ -0,0 +1,246 @@
+package ru.yandex.practicum.shareit.request;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
+import ru.yandex.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Newest requests of all users ordered by (created, id) descending, shared by every reader of /requests/all
+ * A page is cut from the segment skipping the requests of the reader,
+ * so the same segment serves every user instead of a query per user and offset
+ * New requests are appended after their transaction commits, the oldest ones are dropped above the capacity
+ * A page reaching past the segment is not served, the caller reads it from the database
+ * Pages are counted as shareit.request.feed tagged by the source, memory or database
+ */
+@Component
+@Slf4j
+public class ItemRequestFeed {
+
+    public static final Sort SORT_BY_CREATED = Sort.by(Sort.Direction.DESC, "created", "id");
+
+    private static final Comparator<KeysetCursor> NEWEST_FIRST = Comparator
+            .comparing(KeysetCursor::getTimestamp)
+            .thenComparing(KeysetCursor::getId)
+            .reversed();
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final int capacity;
+
+    private final ConcurrentSkipListMap<KeysetCursor, Entry> entries = new ConcurrentSkipListMap<>(NEWEST_FIRST);
+    private final Counter memoryPages;
+    private final Counter databasePages;
+
+    /**
+     * Guarded by this, the skip list size is not constant time
+     */
+    private int size;
+
+    /**
+     * Whether the segment holds every request, then a short page is the end of the feed
+     */
+    private volatile boolean complete;
+    private volatile boolean loaded;
+
+    public ItemRequestFeed(
+            ItemRequestRepository itemRequestRepository,
+            @Value("${shareit.request-feed.capacity}") int capacity,
+            MeterRegistry meterRegistry
+    ) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.capacity = capacity;
+
+        memoryPages = Counter.builder("shareit.request.feed")
+                .description("Pages of /requests/all by source")
+                .tag("source", "memory")
+                .register(meterRegistry);
+        databasePages = Counter.builder("shareit.request.feed")
+                .description("Pages of /requests/all by source")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the newest requests up to the capacity
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ItemRequest> newest = itemRequestRepository.findAll(PageRequest.of(0, capacity, SORT_BY_CREATED))
+                .getContent();
+
+        synchronized (this) {
+            newest.forEach(this::put);
+            complete = newest.size() < capacity;
+            trim();
+            loaded = true;
+        }
+
+        log.info("Item request feed loaded: {} requests", newest.size());
+    }
+
+    /**
+     * Appends the request once the current transaction commits
+     *
+     * @param itemRequest
+     */
+    public void append(ItemRequest itemRequest) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appendNow(itemRequest);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                appendNow(itemRequest);
+            }
+        });
+    }
+
+    /**
+     * Drops all requests of the user once the current transaction commits
+     *
+     * @param requestorId
+     */
+    public void removeByRequestorId(Long requestorId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeByRequestorIdNow(requestorId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeByRequestorIdNow(requestorId);
+            }
+        });
+    }
+
+    /**
+     * Returns the page of requests of other users after the cursor, or after the page offset without a cursor
+     * Returns empty if the page reaches past the segment
+     *
+     * @param userId
+     * @param cursor
+     * @param page
+     * @return page of requests
+     */
+    public Optional<Slice<ItemRequest>> find(Long userId, KeysetCursor cursor, Pageable page) {
+        if (!loaded) {
+            databasePages.increment();
+            return Optional.empty();
+        }
+
+        NavigableMap<KeysetCursor, Entry> after = cursor == null ? entries : entries.tailMap(cursor, false);
+        long skip = cursor == null ? page.getOffset() : 0;
+        List<ItemRequest> content = new ArrayList<>(page.getPageSize());
+
+        for (Entry entry : after.values()) {
+            if (Objects.equals(entry.requestorId, userId)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            if (content.size() == page.getPageSize()) {
+                memoryPages.increment();
+                return Optional.of(new SliceImpl<>(content, page, true));
+            }
+            content.add(entry.toItemRequest());
+        }
+
+        if (!complete) {
+            databasePages.increment();
+            return Optional.empty();
+        }
+
+        memoryPages.increment();
+        return Optional.of(new SliceImpl<>(content, page, false));
+    }
+
+    private synchronized void removeByRequestorIdNow(Long requestorId) {
+        entries.values().removeIf(entry -> {
+            boolean removed = Objects.equals(entry.requestorId, requestorId);
+            if (removed) {
+                size--;
+            }
+            return removed;
+        });
+    }
+
+    private synchronized void appendNow(ItemRequest itemRequest) {
+        put(itemRequest);
+        trim();
+    }
+
+    private void put(ItemRequest itemRequest) {
+        Entry entry = new Entry(itemRequest);
+        if (entries.putIfAbsent(KeysetCursor.of(entry.created, entry.id), entry) == null) {
+            size++;
+        }
+    }
+
+    private void trim() {
+        while (size > capacity) {
+            Map.Entry<KeysetCursor, Entry> oldest = entries.pollLastEntry();
+            if (oldest == null) {
+                break;
+            }
+            size--;
+            complete = false;
+        }
+    }
+
+    /**
+     * Immutable copy of a request, every reader gets its own entity to set items to
+     */
+    private static final class Entry {
+
+        private final Long id;
+        private final Long requestorId;
+        private final String description;
+        private final LocalDateTime created;
+
+        private Entry(ItemRequest itemRequest) {
+            id = itemRequest.getId();
+            requestorId = itemRequest.getRequestor().getId();
+            description = itemRequest.getDescription();
+            created = itemRequest.getCreated();
+        }
+
+        private ItemRequest toItemRequest() {
+            User requestor = new User();
+            requestor.setId(requestorId);
+
+            ItemRequest itemRequest = new ItemRequest();
+            itemRequest.setId(id);
+            itemRequest.setRequestor(requestor);
+            itemRequest.setDescription(description);
+            itemRequest.setCreated(created);
+            return itemRequest;
+        }
+    }
+}
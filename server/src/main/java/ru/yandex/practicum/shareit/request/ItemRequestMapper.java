@@ -21,6 +21,7 @@ public class ItemRequestMapper {
         itemRequestDto.setDescription(itemRequest.getDescription());
         itemRequestDto.setCreated(itemRequest.getCreated());
         itemRequestDto.setItems(itemMapper.toDtos(itemRequest.getItems()));
+        itemRequestDto.setSuggestedItems(itemMapper.toDtos(itemRequest.getSuggestedItems()));
 
         return itemRequestDto;
     }
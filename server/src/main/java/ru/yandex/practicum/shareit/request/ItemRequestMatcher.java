@@ -0,0 +1,307 @@
+package ru.yandex.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.shareit.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index of open requests, that is requests without items, by the stems of their descriptions
+ * A new item without a request is matched by the stems of its name against the index,
+ * the newest matching requests of other users are stored as suggestions for the requestors
+ * A stem is the first STEM_LENGTH letters of a word, which is enough to match the inflected forms of a noun
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ItemRequestMatcher {
+
+    private static final int STEM_LENGTH = 4;
+    private static final int MAX_SUGGESTIONS_PER_ITEM = 20;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Stems of the words people use to ask for something, they match every request
+     */
+    private static final Set<String> STOP_STEMS = Set.of(
+            "НУЖЕ", "НУЖН", "ХОТЕ", "ХОЧУ", "ВОСП", "МОЖН", "ПОДС", "ПОЖА", "КОТО", "ЕСТЬ", "ОЧЕН", "ВЗЯТ", "АРЕН"
+    );
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final RequestSuggestionRepository requestSuggestionRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, OpenRequest> requests = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> requestIdsByStem = new HashMap<>();
+
+    /**
+     * Rebuilds the index from the open requests
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            requests.clear();
+            requestIdsByStem.clear();
+
+            Long lastId = 0L;
+            List<ItemRequest> batch;
+            do {
+                batch = itemRequestRepository.findOpenByIdGreaterThan(lastId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (ItemRequest itemRequest : batch) {
+                    add(itemRequest.getId(), itemRequest.getRequestor().getId(), itemRequest.getDescription());
+                    lastId = itemRequest.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+
+            log.info("Item request matcher rebuilt: {} open requests, {} stems",
+                    requests.size(), requestIdsByStem.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the request to the index once the current transaction commits,
+     * so no suggestion refers to a request that was rolled back
+     *
+     * @param itemRequest
+     */
+    public void index(ItemRequest itemRequest) {
+        Long id = itemRequest.getId();
+        Long requestorId = itemRequest.getRequestor().getId();
+        String description = itemRequest.getDescription();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addLocked(id, requestorId, description);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addLocked(id, requestorId, description);
+            }
+        });
+    }
+
+    /**
+     * Removes all requests of the user from the index once the current transaction commits
+     *
+     * @param requestorId
+     */
+    public void removeByRequestorId(Long requestorId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeByRequestorIdLocked(requestorId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeByRequestorIdLocked(requestorId);
+            }
+        });
+    }
+
+    /**
+     * Closes the requests the items were created for and stores suggestions for the other items
+     * Runs in the transaction that creates the items, the requests are closed once it commits
+     *
+     * @param items
+     */
+    public void matchItems(List<Item> items) {
+        List<RequestSuggestion> suggestions = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Item item : items) {
+            if (item.getRequest() != null) {
+                close(item.getRequest().getId());
+                continue;
+            }
+
+            for (Long requestId : match(item.getName(), item.getOwner().getId())) {
+                RequestSuggestion suggestion = new RequestSuggestion();
+                suggestion.setRequest(itemRequestRepository.getReferenceById(requestId));
+                suggestion.setItem(item);
+                suggestion.setCreated(now);
+                suggestions.add(suggestion);
+            }
+        }
+
+        if (!suggestions.isEmpty()) {
+            requestSuggestionRepository.saveAll(suggestions);
+        }
+    }
+
+    /**
+     * Returns IDs of the newest open requests of other users sharing a stem with the item name
+     *
+     * @param itemName
+     * @param ownerId
+     * @return list of request IDs in descending order
+     */
+    public List<Long> match(String itemName, Long ownerId) {
+        Set<String> stems = stems(itemName);
+        TreeSet<Long> requestIds = new TreeSet<>(Collections.reverseOrder());
+
+        lock.readLock().lock();
+        try {
+            for (String stem : stems) {
+                NavigableSet<Long> stemRequestIds = requestIdsByStem.get(stem);
+                if (stemRequestIds == null) {
+                    continue;
+                }
+
+                int taken = 0;
+                Iterator<Long> newestFirst = stemRequestIds.descendingIterator();
+                while (newestFirst.hasNext() && taken < MAX_SUGGESTIONS_PER_ITEM) {
+                    Long requestId = newestFirst.next();
+                    if (!Objects.equals(requests.get(requestId).requestorId, ownerId)) {
+                        requestIds.add(requestId);
+                        taken++;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> newest = new ArrayList<>(MAX_SUGGESTIONS_PER_ITEM);
+        for (Long requestId : requestIds) {
+            if (newest.size() == MAX_SUGGESTIONS_PER_ITEM) {
+                break;
+            }
+            newest.add(requestId);
+        }
+        return newest;
+    }
+
+    private void close(Long requestId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removeLocked(requestId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removeLocked(requestId);
+            }
+        });
+    }
+
+    private void removeByRequestorIdLocked(Long requestorId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> requestIds = new ArrayList<>();
+            requests.forEach((id, openRequest) -> {
+                if (Objects.equals(openRequest.requestorId, requestorId)) {
+                    requestIds.add(id);
+                }
+            });
+            requestIds.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(Long id, Long requestorId, String description) {
+        lock.writeLock().lock();
+        try {
+            add(id, requestorId, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Long id, Long requestorId, String description) {
+        OpenRequest openRequest = new OpenRequest(requestorId, stems(description));
+        requests.put(id, openRequest);
+        for (String stem : openRequest.stems) {
+            requestIdsByStem.computeIfAbsent(stem, key -> new TreeSet<>()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        OpenRequest openRequest = requests.remove(id);
+        if (openRequest == null) {
+            return;
+        }
+
+        for (String stem : openRequest.stems) {
+            NavigableSet<Long> stemRequestIds = requestIdsByStem.get(stem);
+            if (stemRequestIds != null) {
+                stemRequestIds.remove(id);
+                if (stemRequestIds.isEmpty()) {
+                    requestIdsByStem.remove(stem);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the text into words and cuts every word to its stem, words shorter than a stem are skipped
+     */
+    static Set<String> stems(String text) {
+        Set<String> stems = new HashSet<>();
+        if (text == null) {
+            return stems;
+        }
+
+        for (String word : WORD_SEPARATOR.split(text.toUpperCase(Locale.ROOT).replace('Ё', 'Е'))) {
+            if (word.length() < STEM_LENGTH) {
+                continue;
+            }
+            String stem = word.substring(0, STEM_LENGTH);
+            if (!STOP_STEMS.contains(stem)) {
+                stems.add(stem);
+            }
+        }
+        return stems;
+    }
+
+    private static final class OpenRequest {
+
+        private final Long requestorId;
+        private final Set<String> stems;
+
+        private OpenRequest(Long requestorId, Set<String> stems) {
+            this.requestorId = requestorId;
+            this.stems = stems;
+        }
+    }
+}
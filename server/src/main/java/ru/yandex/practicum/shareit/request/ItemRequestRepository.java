@@ -1,22 +1,45 @@
 package ru.yandex.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     /**
-     * Returns a list of requests created by other users
+     * Returns a list of requests created by other users, requests of hidden users are left out
      * Results should be returned page by page
      *
      * @param userId
      * @param page
      * @return list of requests
      */
-    List<ItemRequest> findByRequestorIdNot(Long userId, Pageable page);
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id <> ?1 and exists (select u.id from User u where u.id = r.requestor.id)")
+    Slice<ItemRequest> findByRequestorIdNot(Long userId, Pageable page);
+
+    /**
+     * Returns a list of requests created by other users before the given (created, id) position
+     * Requests of hidden users are left out, the user entity is filtered by is_deleted
+     * Results should be returned page by page
+     *
+     * @param userId
+     * @param created
+     * @param id
+     * @param page
+     * @return list of requests
+     */
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id <> ?1 and exists (select u.id from User u where u.id = r.requestor.id) " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3))")
+    Slice<ItemRequest> findByRequestorIdNotBefore(Long userId, LocalDateTime created, Long id, Pageable page);
 
     /**
      * Returns a list of user requests
@@ -26,4 +49,30 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
      * @return list of requests
      */
     List<ItemRequest> findByRequestorId(Long requesterId, Sort sort);
+
+    /**
+     * Returns requests without items, with IDs greater than the given one
+     * Used to walk through the open requests page by page without offset
+     *
+     * @param id
+     * @param page
+     * @return list of requests
+     */
+    @Query("select r from ItemRequest r " +
+            "where r.id > ?1 and not exists (select i.id from Item i where i.request = r) " +
+            "order by r.id")
+    List<ItemRequest> findOpenByIdGreaterThan(Long id, Pageable page);
+
+    /**
+     * Removes up to limit of user requests
+     *
+     * @param requestorId
+     * @param limit
+     * @return number of removed requests
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "delete from requests where id in (" +
+            "select r.id from requests r where r.requestor_id = ?1 limit ?2)", nativeQuery = true)
+    int deleteChunkByRequestorId(Long requestorId, int limit);
 }
@@ -1,21 +1,26 @@
 package ru.yandex.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemRequestService {
 
     /**
-     * Returns a list of requests created by other users
-     * Results should be returned page by page
+     * Returns a list of requests created by other users, newest first
+     * Results should be returned page by page, after the cursor if it is given
      * If the user is not found throws NotFoundException
      *
      * @param userId
+     * @param cursor
      * @param page
      * @return list of requests
      */
-    List<ItemRequest> getItemRequestsAll(Long userId, Pageable page);
+    Slice<ItemRequest> getItemRequestsAll(Long userId, KeysetCursor cursor, Pageable page);
 
     /**
      * Returns a list of user requests
@@ -36,6 +41,14 @@ public interface ItemRequestService {
      */
     ItemRequest getItemRequestById(Long id, Long userId);
 
+    /**
+     * Returns the existing item requests among the IDs
+     *
+     * @param ids
+     * @return item requests by id
+     */
+    Map<Long, ItemRequest> getItemRequestsByIds(Collection<Long> ids);
+
     /**
      * Creates a new item request by the user
      * If the user is not found throws NotFoundException
@@ -60,4 +73,12 @@ public interface ItemRequestService {
      * @return
      */
     void setItemsToItemRequests(List<ItemRequest> itemRequests);
+
+    /**
+     * Sets the items suggested by the matcher to the list of requests
+     *
+     * @param itemRequests
+     * @return
+     */
+    void setSuggestedItemsToItemRequests(List<ItemRequest> itemRequests);
 }
@@ -1,18 +1,25 @@
 package ru.yandex.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.yandex.practicum.shareit.item.Item;
 import ru.yandex.practicum.shareit.item.ItemService;
-import ru.yandex.practicum.shareit.user.UserRepository;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
+import ru.yandex.practicum.shareit.user.UserService;
 import ru.yandex.practicum.shareit.validator.NotFoundException;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,23 +27,29 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemService itemService;
+    private final RequestSuggestionRepository requestSuggestionRepository;
+    private final ItemRequestMatcher itemRequestMatcher;
+    private final ItemRequestFeed itemRequestFeed;
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemRequest> getItemRequestsAll(Long userId, Pageable page) {
-        if (!userRepository.existsById(userId)) {
+    public Slice<ItemRequest> getItemRequestsAll(Long userId, KeysetCursor cursor, Pageable page) {
+        if (!userService.existsById(userId)) {
             throw new NotFoundException(String.format("User with id %d does not exist", userId));
         }
 
-        return itemRequestRepository.findByRequestorIdNot(userId, page);
+        return itemRequestFeed.find(userId, cursor, page).orElseGet(() -> cursor == null
+                ? itemRequestRepository.findByRequestorIdNot(userId, page)
+                : itemRequestRepository.findByRequestorIdNotBefore(userId, cursor.getTimestamp(), cursor.getId(),
+                        PageRequest.of(0, page.getPageSize(), page.getSort())));
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<ItemRequest> getItemRequestsByUserId(Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userService.existsById(userId)) {
             throw new NotFoundException(String.format("User with id %d does not exist", userId));
         }
 
@@ -46,7 +59,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional(readOnly = true)
     @Override
     public ItemRequest getItemRequestById(Long id, Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userService.existsById(userId)) {
             throw new NotFoundException(String.format("User with id %d does not exist", userId));
         }
 
@@ -54,11 +67,22 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 () -> new NotFoundException(String.format("Item request with id %d does not exist", id)));
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Map<Long, ItemRequest> getItemRequestsByIds(Collection<Long> ids) {
+        return itemRequestRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
+
     @Transactional
     @Override
     public ItemRequest createRequest(ItemRequest itemRequest) {
-        itemRequest.setCreated(LocalDateTime.now());
-        return itemRequestRepository.save(itemRequest);
+        // the database keeps microseconds, the feed must hold the same value to compare cursors with the rows
+        itemRequest.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        ItemRequest createdItemRequest = itemRequestRepository.save(itemRequest);
+        itemRequestMatcher.index(createdItemRequest);
+        itemRequestFeed.append(createdItemRequest);
+        return createdItemRequest;
     }
 
     @Override
@@ -82,6 +106,25 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         itemRequests.forEach(itemRequest -> setItems(itemRequest, items.get(itemRequest.getId())));
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public void setSuggestedItemsToItemRequests(List<ItemRequest> itemRequests) {
+        if (itemRequests == null || itemRequests.isEmpty()) {
+            return;
+        }
+
+        List<Long> itemRequestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<Item>> suggestedItems = requestSuggestionRepository.findByRequestIdIn(itemRequestIds).stream()
+                .collect(Collectors.groupingBy(suggestion -> suggestion.getRequest().getId(),
+                        Collectors.mapping(RequestSuggestion::getItem, Collectors.toList())));
+
+        itemRequests.forEach(itemRequest -> itemRequest.setSuggestedItems(
+                suggestedItems.getOrDefault(itemRequest.getId(), Collections.emptyList())));
+    }
+
     private void setItems(ItemRequest itemRequest, List<Item> items) {
         if (items != null) {
             itemRequest.setItems(items);
@@ -0,0 +1,44 @@
+package ru.yandex.practicum.shareit.request;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import ru.yandex.practicum.shareit.item.Item;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Item of another user that matches the description of an open request
+ */
+@Entity
+@Table(name = "request_suggestions")
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+public class RequestSuggestion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "request_suggestions_seq")
+    @SequenceGenerator(name = "request_suggestions_seq", sequenceName = "request_suggestions_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private ItemRequest request;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    private Item item;
+
+    @Column
+    private LocalDateTime created;
+}
@@ -0,0 +1,40 @@
+package ru.yandex.practicum.shareit.request;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RequestSuggestionRepository extends JpaRepository<RequestSuggestion, Long> {
+
+    /**
+     * Returns suggestions for request IDs with their items, newest items first
+     * Items hidden by a user removal are skipped by the subquery, which applies the Item restriction
+     *
+     * @param requestIds
+     * @return list of suggestions
+     */
+    @Query("select s from RequestSuggestion s join fetch s.item i " +
+            "where s.request.id in ?1 and exists (select vi.id from Item vi where vi.id = i.id) " +
+            "order by i.id desc")
+    List<RequestSuggestion> findByRequestIdIn(Collection<Long> requestIds);
+
+    /**
+     * Removes up to limit of suggestions for the user requests or of the user items
+     *
+     * @param userId
+     * @param limit
+     * @return number of removed suggestions
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "delete from request_suggestions where id in (" +
+            "select s.id from request_suggestions s " +
+            "where s.request_id in (select r.id from requests r where r.requestor_id = ?1) " +
+            "or s.item_id in (select i.id from items i where i.owner_id = ?1) " +
+            "limit ?2)", nativeQuery = true)
+    int deleteChunkByRequestorIdOrItemOwnerId(Long userId, int limit);
+}
@@ -0,0 +1,12 @@
+package ru.yandex.practicum.shareit.scheduling;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs run on the single thread of the default scheduler
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
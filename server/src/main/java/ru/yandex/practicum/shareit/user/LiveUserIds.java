@@ -0,0 +1,23 @@
+package ru.yandex.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.shareit.ids.LiveIdSet;
+
+import java.util.List;
+
+/**
+ * IDs of existing users
+ */
+@Component
+@RequiredArgsConstructor
+public class LiveUserIds extends LiveIdSet {
+
+    private final UserRepository userRepository;
+
+    @Override
+    protected List<Long> findIdsGreaterThan(Long id, int limit) {
+        return userRepository.findIdsGreaterThan(id, PageRequest.of(0, limit));
+    }
+}
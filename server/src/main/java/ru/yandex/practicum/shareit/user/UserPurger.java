@@ -0,0 +1,183 @@
+package ru.yandex.practicum.shareit.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.shareit.booking.BookingAvailabilityIndex;
+import ru.yandex.practicum.shareit.booking.BookingRepository;
+import ru.yandex.practicum.shareit.booking.CompletedRentals;
+import ru.yandex.practicum.shareit.item.CommentRepository;
+import ru.yandex.practicum.shareit.item.ItemRepository;
+import ru.yandex.practicum.shareit.request.ItemRequestRepository;
+import ru.yandex.practicum.shareit.request.RequestSuggestionRepository;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes the history of users hidden by UserService.removeUserById
+ * Rows are removed in chunks of shareit.purge.chunk-size, each chunk in its own transaction
+ * followed by a pause of shareit.purge.chunk-pause, so live traffic never waits for a long lock
+ * The hidden flag is the only state, an interrupted purge continues with the next run or after a restart
+ * A chunk that fails on a constraint because of a concurrent write restarts the user from the first table,
+ * after MAX_ATTEMPTS the user is left for the next run and the purge goes on with the next user
+ * Progress is exported as shareit.purge.rows tagged by table, shareit.purge.users, shareit.purge.conflicts
+ * and shareit.purge.pending.users
+ */
+@Component
+@Slf4j
+public class UserPurger {
+
+    private static final String ROWS_METRIC_NAME = "shareit.purge.rows";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final RequestSuggestionRepository requestSuggestionRepository;
+    private final BookingAvailabilityIndex bookingAvailabilityIndex;
+    private final CompletedRentals completedRentals;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final Duration chunkPause;
+
+    private final Counter purgedUsers;
+    private final Counter conflicts;
+    private final AtomicLong pendingUsers = new AtomicLong();
+
+    public UserPurger(
+            UserRepository userRepository,
+            ItemRepository itemRepository,
+            BookingRepository bookingRepository,
+            CommentRepository commentRepository,
+            ItemRequestRepository itemRequestRepository,
+            RequestSuggestionRepository requestSuggestionRepository,
+            BookingAvailabilityIndex bookingAvailabilityIndex,
+            CompletedRentals completedRentals,
+            MeterRegistry meterRegistry,
+            @Value("${shareit.purge.chunk-size}") int chunkSize,
+            @Value("${shareit.purge.chunk-pause}") Duration chunkPause
+    ) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.requestSuggestionRepository = requestSuggestionRepository;
+        this.bookingAvailabilityIndex = bookingAvailabilityIndex;
+        this.completedRentals = completedRentals;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+
+        purgedUsers = Counter.builder("shareit.purge.users")
+                .description("Hidden users removed with their history")
+                .register(meterRegistry);
+        conflicts = Counter.builder("shareit.purge.conflicts")
+                .description("Purge attempts failed on a constraint by a concurrent write")
+                .register(meterRegistry);
+        Gauge.builder("shareit.purge.pending.users", pendingUsers, AtomicLong::get)
+                .description("Hidden users waiting to be removed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Removes hidden users one by one until none are left or the thread is interrupted
+     */
+    @Scheduled(fixedDelayString = "${shareit.purge.delay}")
+    public void purge() {
+        pendingUsers.set(userRepository.countDeleted());
+
+        Long userId = 0L;
+        while (!Thread.currentThread().isInterrupted()
+                && (userId = userRepository.findFirstDeletedIdGreaterThan(userId)) != null) {
+            purgeUser(userId);
+        }
+    }
+
+    private void purgeUser(Long userId) {
+        log.info("Purging user {}", userId);
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                purgeHistoryAndUser(userId);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                conflicts.increment();
+                log.warn("Purge of user {} failed on attempt {} of {}: {}", userId, attempt, MAX_ATTEMPTS,
+                        e.getMostSpecificCause().getMessage());
+            }
+        }
+
+        log.warn("User {} is left for the next purge run", userId);
+    }
+
+    private void purgeHistoryAndUser(Long userId) {
+        boolean done = purgeInChunks("request_suggestions", userId,
+                requestSuggestionRepository::deleteChunkByRequestorIdOrItemOwnerId)
+                && purgeInChunks("items.comment_count", userId, itemRepository::recountCommentsChunkByAuthorId)
+                && purgeInChunks("comments", userId, commentRepository::deleteChunkByAuthorIdOrItemOwnerId)
+                && purgeInChunks("bookings", userId, bookingRepository::deleteChunkByBookerIdOrItemOwnerId)
+                && purgeInChunks("items.request_id", userId, itemRepository::clearRequestChunkByRequestorId)
+                && purgeInChunks("items", userId, itemRepository::deleteChunkByOwnerId)
+                && purgeInChunks("requests", userId, itemRequestRepository::deleteChunkByRequestorId);
+        if (!done) {
+            return;
+        }
+
+        userRepository.deleteDeletedById(userId);
+        bookingAvailabilityIndex.clear();
+        completedRentals.removeByBookerId(userId);
+        purgedUsers.increment();
+        pendingUsers.decrementAndGet();
+        log.info("User {} purged", userId);
+    }
+
+    /**
+     * Runs the chunk until it affects fewer rows than the chunk size
+     *
+     * @return false if the thread was interrupted
+     */
+    private boolean purgeInChunks(String table, Long userId, Chunk chunk) {
+        Counter rows = meterRegistry.counter(ROWS_METRIC_NAME, "table", table);
+
+        int affected;
+        do {
+            affected = chunk.run(userId, chunkSize);
+            rows.increment(affected);
+            if (!pause()) {
+                return false;
+            }
+        } while (affected == chunkSize);
+
+        return true;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(chunkPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+
+        /**
+         * Removes or updates up to limit rows of the user
+         *
+         * @return number of affected rows
+         */
+        int run(Long userId, int limit);
+    }
+}
@@ -1,6 +1,58 @@
 package ru.yandex.practicum.shareit.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * Returns IDs of users greater than the given one in ascending order
+     *
+     * @param id
+     * @param page
+     * @return list of IDs
+     */
+    @Query("select u.id from User u where u.id > ?1 order by u.id")
+    List<Long> findIdsGreaterThan(Long id, Pageable page);
+
+    /**
+     * Hides the user, the user is removed later by the purger
+     *
+     * @param id
+     */
+    @Modifying
+    @Query(value = "update users set is_deleted = true where id = ?1", nativeQuery = true)
+    void markDeletedById(Long id);
+
+    /**
+     * Returns the smallest ID of a hidden user greater than the given ID
+     *
+     * @param id
+     * @return user ID or null if there are no more hidden users
+     */
+    @Query(value = "select min(id) from users where is_deleted = true and id > ?1", nativeQuery = true)
+    Long findFirstDeletedIdGreaterThan(Long id);
+
+    /**
+     * Returns the number of hidden users
+     *
+     * @return number of users
+     */
+    @Query(value = "select count(*) from users where is_deleted = true", nativeQuery = true)
+    long countDeleted();
+
+    /**
+     * Removes the user if it is hidden
+     *
+     * @param id
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "delete from users where id = ?1 and is_deleted = true", nativeQuery = true)
+    void deleteDeletedById(Long id);
 }
@@ -20,6 +20,14 @@ public interface UserService {
      */
     User getUserById(Long id);
 
+    /**
+     * Checks that the user exists
+     *
+     * @param id
+     * @return true if the user exists
+     */
+    boolean existsById(Long id);
+
     /**
      * Creates a new user
      *
@@ -38,7 +46,7 @@ public interface UserService {
     User updateUser(User user);
 
     /**
-     * Removes a user
+     * Removes a user with the user items
      * If the user is not found throws NotFoundException
      *
      * @param id
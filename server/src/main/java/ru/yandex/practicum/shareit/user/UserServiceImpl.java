@@ -1,11 +1,17 @@
 package ru.yandex.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.yandex.practicum.shareit.booking.BookingRepository;
-import ru.yandex.practicum.shareit.item.CommentRepository;
+import ru.yandex.practicum.shareit.cache.CacheConfig;
 import ru.yandex.practicum.shareit.item.ItemRepository;
+import ru.yandex.practicum.shareit.item.ItemSearchIndex;
+import ru.yandex.practicum.shareit.request.ItemRequestFeed;
+import ru.yandex.practicum.shareit.request.ItemRequestMatcher;
 import ru.yandex.practicum.shareit.validator.NotFoundException;
 
 import java.util.List;
@@ -17,43 +23,78 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
-    private final BookingRepository bookingRepository;
-    private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final LiveUserIds liveUserIds;
+    private final ItemRequestMatcher itemRequestMatcher;
+    private final ItemRequestFeed itemRequestFeed;
 
     @Override
     public List<User> getUsers() {
         return userRepository.findAll();
     }
 
+    /**
+     * The user is loaded inside the cache entry computation, an eviction of the key waits for it,
+     * so a user loaded just before its removal commits is never left in the cache
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS, sync = true)
     @Override
     public User getUserById(Long id) {
+        if (liveUserIds.isAbsent(id)) {
+            throw new NotFoundException(String.format("User with id %d does not exist", id));
+        }
+
         return userRepository.findById(id).orElseThrow(
                 () -> new NotFoundException(String.format("User with id %d does not exist", id)));
     }
 
+    /**
+     * Computed the same way as getUserById, creating and removing a user evict the result
+     */
+    @Cacheable(cacheNames = CacheConfig.USER_EXISTS, sync = true)
+    @Override
+    public boolean existsById(Long id) {
+        return !liveUserIds.isAbsent(id) && userRepository.existsById(id);
+    }
+
     @Transactional
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.USERS, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.USER_EXISTS, key = "#result.id")
+    )
     @Override
     public User createUser(User user) {
-        return userRepository.save(user);
+        User createdUser = userRepository.save(user);
+        liveUserIds.add(createdUser.getId());
+        return createdUser;
     }
 
     @Transactional
+    @CachePut(cacheNames = CacheConfig.USERS, key = "#result.id")
     @Override
     public User updateUser(User user) {
         return userRepository.save(user);
     }
 
+    /**
+     * Hides the user and the user items at once, their history is removed in the background by UserPurger
+     */
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USER_EXISTS, key = "#id")
+    })
     @Override
     public void removeUserById(Long id) {
-        if (!userRepository.existsById(id)) {
+        if (liveUserIds.isAbsent(id) || !userRepository.existsById(id)) {
             throw new NotFoundException(String.format("User with id %d does not exist", id));
         }
 
-        bookingRepository.deleteByItemOwnerId(id);
-        itemRepository.deleteByOwnerId(id);
-        bookingRepository.deleteByBookerId(id);
-        commentRepository.deleteByAuthorId(id);
-        userRepository.deleteById(id);
+        userRepository.markDeletedById(id);
+        itemRepository.markDeletedByOwnerId(id);
+        liveUserIds.remove(id);
+        itemSearchIndex.removeByOwnerId(id);
+        itemRequestMatcher.removeByRequestorId(id);
+        itemRequestFeed.removeByRequestorId(id);
     }
 }
@@ -1,28 +1,42 @@
 package ru.yandex.practicum.shareit.validator;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
+/**
+ * Client errors are logged without a stack trace and at most LOGGED_CLIENT_ERRORS_PER_SECOND times per second,
+ * so a flood of bad requests costs neither CPU nor log volume, unexpected errors are always logged in full
+ */
 @ControllerAdvice
 @Slf4j
 public class ErrorHandler {
 
+    private static final int LOGGED_CLIENT_ERRORS_PER_SECOND = 10;
+
+    private static final byte[] ERROR_PREFIX = "{\"error\": \"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ERROR_SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final LogRateLimiter clientErrorLog = new LogRateLimiter(LOGGED_CLIENT_ERRORS_PER_SECOND);
+
     @ExceptionHandler
     public void handleValidationException(final ValidationException e, final HttpServletResponse response)
             throws IOException {
-        log.error(e.getMessage(), e);
+        logClientError(e);
         sendError(response, HttpStatus.BAD_REQUEST.value(), e.getMessage());
     }
 
     @ExceptionHandler
     public void handleNotFoundException(final NotFoundException e, final HttpServletResponse response)
             throws IOException {
-        log.error(e.getMessage(), e);
+        logClientError(e);
         sendError(response, HttpStatus.NOT_FOUND.value(), e.getMessage());
     }
 
@@ -32,10 +46,29 @@ public class ErrorHandler {
         sendError(response, HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
     }
 
+    private void logClientError(final Exception e) {
+        long suppressed = clientErrorLog.tryAcquire();
+        if (suppressed > 0) {
+            log.warn("{} ({} similar errors suppressed)", e.getMessage(), suppressed);
+        } else if (suppressed == 0) {
+            log.warn(e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the escaped message between preallocated JSON fragments, without building the body as a string
+     */
     private void sendError(final HttpServletResponse response, int httpStatusCode, String errorMessage)
             throws IOException {
+        byte[] message = JsonStringEncoder.getInstance().quoteAsUTF8(String.valueOf(errorMessage));
+
         response.setStatus(httpStatusCode);
         response.setHeader("Content-Type", "application/json");
-        response.getOutputStream().print("{\"error\": \"" + errorMessage + "\"}");
+        response.setContentLength(ERROR_PREFIX.length + message.length + ERROR_SUFFIX.length);
+
+        ServletOutputStream output = response.getOutputStream();
+        output.write(ERROR_PREFIX);
+        output.write(message);
+        output.write(ERROR_SUFFIX);
     }
 }
@@ -1,8 +1,11 @@
 package ru.yandex.practicum.shareit.validator;
 
+/**
+ * Created without a stack trace, the message identifies the failure
+ */
 public class NotFoundException extends RuntimeException {
 
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
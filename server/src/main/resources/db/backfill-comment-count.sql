@@ -0,0 +1,6 @@
+-- One-time backfill, not part of spring.sql.init
+-- Run once on a database that had comments before items.comment_count was added,
+-- afterwards the counter is kept up to date by ItemRepository.incrementCommentCount
+
+UPDATE items SET comment_count = (SELECT count(*) FROM comments c WHERE c.item_id = items.id)
+WHERE comment_count <> (SELECT count(*) FROM comments c WHERE c.item_id = items.id);
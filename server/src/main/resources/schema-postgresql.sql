@@ -0,0 +1,30 @@
+-- Runs after schema.sql on PostgreSQL only
+-- Databases created before the ids came from the sequences still have identity columns,
+-- the identity is replaced by the sequence default and each sequence is moved past max(id)
+-- Every statement is a no-op once the database is migrated
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+ALTER TABLE request_suggestions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE request_suggestions ALTER COLUMN id SET DEFAULT nextval('request_suggestions_seq');
+
+SELECT setval('users_seq', max(id)) FROM users
+HAVING max(id) >= (SELECT last_value FROM users_seq);
+SELECT setval('requests_seq', max(id)) FROM requests
+HAVING max(id) >= (SELECT last_value FROM requests_seq);
+SELECT setval('items_seq', max(id)) FROM items
+HAVING max(id) >= (SELECT last_value FROM items_seq);
+SELECT setval('bookings_seq', max(id)) FROM bookings
+HAVING max(id) >= (SELECT last_value FROM bookings_seq);
+SELECT setval('comments_seq', max(id)) FROM comments
+HAVING max(id) >= (SELECT last_value FROM comments_seq);
+SELECT setval('request_suggestions_seq', max(id)) FROM request_suggestions
+HAVING max(id) >= (SELECT last_value FROM request_suggestions_seq);
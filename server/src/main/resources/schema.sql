@@ -1,18 +1,25 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS request_suggestions_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-  id BIGINT NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT NOT NULL DEFAULT nextval('users_seq') PRIMARY KEY,
   email varchar(255) NOT NULL UNIQUE,
   name varchar(255) NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-  id BIGINT NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT NOT NULL DEFAULT nextval('requests_seq') PRIMARY KEY,
   description varchar(255) NOT NULL,
   requestor_id bigint NOT NULL REFERENCES users (id),
   created timestamp without time zone NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS items (
-  id BIGINT NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT NOT NULL DEFAULT nextval('items_seq') PRIMARY KEY,
   name varchar(255) NOT NULL,
   description varchar(1000) NOT NULL,
   is_available boolean NOT NULL DEFAULT true,
@@ -22,7 +29,7 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-  id BIGINT NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT NOT NULL DEFAULT nextval('bookings_seq') PRIMARY KEY,
   start_date timestamp without time zone NOT NULL,
   end_date timestamp without time zone NOT NULL,
   item_id bigint NOT NULL REFERENCES items (id),
@@ -31,9 +38,36 @@ CREATE TABLE IF NOT EXISTS bookings (
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-  id BIGINT NOT NULL GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  id BIGINT NOT NULL DEFAULT nextval('comments_seq') PRIMARY KEY,
   text varchar(1000) NOT NULL,
   item_id bigint NOT NULL REFERENCES items (id),
   author_id bigint NOT NULL REFERENCES users (id),
   created timestamp without time zone NOT NULL
 );
+
+CREATE TABLE IF NOT EXISTS request_suggestions (
+  id BIGINT NOT NULL DEFAULT nextval('request_suggestions_seq') PRIMARY KEY,
+  request_id bigint NOT NULL REFERENCES requests (id),
+  item_id bigint NOT NULL REFERENCES items (id),
+  created timestamp without time zone NOT NULL,
+  UNIQUE(request_id, item_id)
+);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS is_deleted boolean NOT NULL DEFAULT false;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS is_deleted boolean NOT NULL DEFAULT false;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count bigint NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS bookings_item_id_status_start_date_idx ON bookings (item_id, status, start_date);
+DROP INDEX IF EXISTS bookings_booker_id_start_date_idx;
+CREATE INDEX IF NOT EXISTS bookings_booker_id_start_date_id_idx ON bookings (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id);
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id);
+DROP INDEX IF EXISTS comments_item_id_created_idx;
+CREATE INDEX IF NOT EXISTS comments_item_id_created_id_idx ON comments (item_id, created, id);
+CREATE INDEX IF NOT EXISTS comments_author_id_idx ON comments (author_id);
+DROP INDEX IF EXISTS requests_requestor_id_created_idx;
+CREATE INDEX IF NOT EXISTS requests_requestor_id_created_id_idx ON requests (requestor_id, created, id);
+DROP INDEX IF EXISTS requests_created_idx;
+CREATE INDEX IF NOT EXISTS requests_created_id_idx ON requests (created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS users_is_deleted_idx ON users (is_deleted);
+CREATE INDEX IF NOT EXISTS request_suggestions_item_id_idx ON request_suggestions (item_id);
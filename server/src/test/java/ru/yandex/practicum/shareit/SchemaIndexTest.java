@@ -0,0 +1,252 @@
+package ru.yandex.practicum.shareit;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.shareit.booking.BookingRepository;
+import ru.yandex.practicum.shareit.booking.BookingSpecification;
+import ru.yandex.practicum.shareit.booking.BookingStatus;
+import ru.yandex.practicum.shareit.item.CommentRepository;
+import ru.yandex.practicum.shareit.item.ItemRepository;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
+import ru.yandex.practicum.shareit.request.ItemRequestFeed;
+import ru.yandex.practicum.shareit.request.ItemRequestRepository;
+import ru.yandex.practicum.shareit.request.RequestSuggestionRepository;
+import ru.yandex.practicum.shareit.user.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN for the SQL Hibernate generates for the repository queries
+ * and checks that none of them falls back to a table scan
+ * The SQL is captured from real repository calls, so it includes the is_deleted filters of @Where
+ * H2 may prefer the indexes it creates for foreign keys, so only the keyset indexes are checked by name
+ */
+@DataJpaTest
+class SchemaIndexTest {
+
+    private static final String TABLE_SCAN = "tableScan";
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final KeysetCursor CURSOR = KeysetCursor.of(NOW, 100L);
+    private static final Sort SORT_BY_START = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final Sort SORT_BY_CREATED = Sort.by(Sort.Direction.DESC, "created", "id");
+    private static final Sort SORT_BY_ID = Sort.by("id").ascending();
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private RequestSuggestionRepository requestSuggestionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void bookingRepositoryQueries_shouldUseIndexes() {
+        assertThat(explain(() -> bookingRepository.findLastApprovedBookingsByItemIds(List.of(1L, 2L), NOW)))
+                .allMatch(plan -> plan.contains("BOOKINGS_ITEM_ID_STATUS_START_DATE_IDX"));
+        assertThat(explain(() -> bookingRepository.findNextApprovedBookingsByItemIds(List.of(1L, 2L), NOW)))
+                .allMatch(plan -> plan.contains("BOOKINGS_ITEM_ID_STATUS_START_DATE_IDX"));
+        assertThat(explain(() -> bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                1L, BookingStatus.APPROVED, NOW)))
+                .allMatch(plan -> plan.contains("BOOKINGS_ITEM_ID_STATUS_START_DATE_IDX"));
+        assertThat(explain(() -> bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(
+                1L, BookingStatus.APPROVED, NOW)))
+                .allMatch(plan -> plan.contains("BOOKINGS_ITEM_ID_STATUS_START_DATE_IDX"));
+        assertThat(explain(() -> bookingRepository.findByItemIdAndStatusInAndEndAfter(
+                1L, List.of(BookingStatus.WAITING, BookingStatus.APPROVED), NOW)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(
+                1L, 2L, BookingStatus.APPROVED, NOW)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> bookingRepository.findApprovedRentalsByIdGreaterThan(0L, PAGE)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> bookingRepository.findById(1L)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+    }
+
+    @Test
+    void bookingKeysetQueries_shouldUseIndexes() {
+        Pageable page = PageRequest.of(0, 20, SORT_BY_START);
+
+        assertThat(explain(() -> bookingRepository.findSlice(BookingSpecification.byBookerId(1L), page)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> bookingRepository.findSlice(
+                BookingSpecification.byBookerId(1L).and(BookingSpecification.isBefore(CURSOR)), page)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> bookingRepository.findSlice(BookingSpecification.byItemOwnerId(1L), page)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> bookingRepository.findSlice(
+                BookingSpecification.byItemOwnerId(1L).and(BookingSpecification.isBefore(CURSOR)), page)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+    }
+
+    @Test
+    void itemRepositoryQueries_shouldUseIndexes() {
+        assertThat(explain(() -> itemRepository.findByOwnerId(1L, PageRequest.of(0, 20, SORT_BY_ID))))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> itemRepository.findByIdIn(List.of(1L, 2L), SORT_BY_ID)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> itemRepository.findByIdGreaterThan(0L, PageRequest.of(0, 20, SORT_BY_ID))))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> itemRepository.findIdsGreaterThan(0L, PAGE)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> itemRepository.existsByIdAndOwnerId(1L, 2L)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> itemRepository.findByRequestIdIn(List.of(1L, 2L), SORT_BY_ID)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> itemRepository.findByRequestId(1L, SORT_BY_ID)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+    }
+
+    @Test
+    void commentRepositoryQueries_shouldUseIndexes() {
+        Pageable page = PageRequest.of(0, 20, SORT_BY_CREATED);
+
+        assertThat(explain(() -> commentRepository.findLatestIdsByItemIdIn(List.of(1L, 2L), 10)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> commentRepository.findByIdIn(List.of(1L, 2L), SORT_BY_CREATED)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> commentRepository.findByItemId(1L, page)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> commentRepository.findByItemIdBefore(1L, NOW, 100L, page)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+    }
+
+    @Test
+    void itemRequestRepositoryQueries_shouldUseIndexes() {
+        Pageable page = PageRequest.of(0, 20, ItemRequestFeed.SORT_BY_CREATED);
+
+        assertThat(explain(() -> itemRequestRepository.findByRequestorId(1L, SORT_BY_CREATED)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> itemRequestRepository.findByRequestorIdNot(1L, page)))
+                .allMatch(plan -> plan.contains("REQUESTS_CREATED_ID_IDX"))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> itemRequestRepository.findByRequestorIdNotBefore(1L, NOW, 100L, page)))
+                .allMatch(plan -> plan.contains("REQUESTS_CREATED_ID_IDX"))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> itemRequestRepository.findOpenByIdGreaterThan(0L, PAGE)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> requestSuggestionRepository.findByRequestIdIn(List.of(1L, 2L))))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+    }
+
+    @Test
+    void userRepositoryQueries_shouldUseIndexes() {
+        assertThat(explain(() -> userRepository.findById(1L)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> userRepository.existsById(1L)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> userRepository.findIdsGreaterThan(0L, PAGE)))
+                .noneMatch(plan -> plan.contains(TABLE_SCAN));
+        assertThat(explain(() -> userRepository.findFirstDeletedIdGreaterThan(0L)))
+                .allMatch(plan -> plan.contains("USERS_IS_DELETED_IDX"));
+        assertThat(explain(() -> userRepository.countDeleted()))
+                .allMatch(plan -> plan.contains("USERS_IS_DELETED_IDX"));
+    }
+
+    /**
+     * Runs the repository call and returns the plans of the statements it prepared
+     */
+    private List<String> explain(Runnable repositoryCall) {
+        statementRecorder.clear();
+        repositoryCall.run();
+
+        List<String> statements = statementRecorder.getStatements();
+        assertThat(statements).isNotEmpty();
+
+        return statements.stream()
+                .map(this::explain)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parameters are bound to null, H2 plans the statement when it is prepared
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameterCount = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameterCount; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Keeps the SQL prepared by Hibernate since the last clear
+     */
+    static class StatementRecorder implements StatementInspector {
+
+        private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        List<String> getStatements() {
+            synchronized (statements) {
+                return new ArrayList<>(statements);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class StatementRecorderConfig {
+
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementRecorderCustomizer(StatementRecorder statementRecorder) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementRecorder);
+        }
+    }
+}
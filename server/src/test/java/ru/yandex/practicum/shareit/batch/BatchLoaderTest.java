@@ -0,0 +1,122 @@
+package ru.yandex.practicum.shareit.batch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class BatchLoaderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(5);
+
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+    private final Function<List<Long>, Map<Long, String>> batchLoader = keys -> {
+        batches.add(keys);
+        return keys.stream().collect(Collectors.toMap(Function.identity(), key -> "batch-" + key));
+    };
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void load_shouldRunTheSingleQuery_withoutWaiting_ifTheCallerIsAlone() {
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", key -> "single-" + key, batchLoader,
+                10, Duration.ofSeconds(5), Duration.ofSeconds(5), meterRegistry);
+
+        long start = System.nanoTime();
+
+        assertThat(loader.load(1L)).isEqualTo("single-1");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    void load_shouldLoadTheKeysOfConcurrentCallersWithOneQuery() throws Exception {
+        CountDownLatch singleStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", key -> {
+            singleStarted.countDown();
+            await(release);
+            return "single-" + key;
+        }, batchLoader, 3, Duration.ofSeconds(5), Duration.ofSeconds(5), meterRegistry);
+
+        Future<String> first = callers.submit(() -> loader.load(1L));
+        assertThat(singleStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<String> second = callers.submit(() -> loader.load(2L));
+        Future<String> third = callers.submit(() -> loader.load(3L));
+        Future<String> sameKey = callers.submit(() -> loader.load(2L));
+        Thread.sleep(100);
+        Future<String> fourth = callers.submit(() -> loader.load(4L));
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("batch-2");
+        assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo("batch-3");
+        assertThat(sameKey.get(5, TimeUnit.SECONDS)).isEqualTo("batch-2");
+        assertThat(fourth.get(5, TimeUnit.SECONDS)).isEqualTo("batch-4");
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("single-1");
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactlyInAnyOrder(2L, 3L, 4L);
+        assertThat(meterRegistry.get("shareit.batch.size").summary().max()).isEqualTo(3);
+    }
+
+    @Test
+    void load_shouldReturnNull_ifTheBatchQueryReturnsNothingForTheKey() throws Exception {
+        CountDownLatch singleStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", key -> {
+            singleStarted.countDown();
+            await(release);
+            return "single-" + key;
+        }, keys -> Map.of(2L, "batch-2"), 2, Duration.ofSeconds(5), Duration.ofSeconds(5), meterRegistry);
+
+        Future<String> first = callers.submit(() -> loader.load(1L));
+        assertThat(singleStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<String> second = callers.submit(() -> loader.load(2L));
+        Future<String> third = callers.submit(() -> loader.load(3L));
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("batch-2");
+        assertThat(third.get(5, TimeUnit.SECONDS)).isNull();
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void load_shouldRethrowTheExceptionOfTheQuery() {
+        BatchLoader<Long, String> loader = new BatchLoader<>("test", key -> {
+            throw new IllegalArgumentException("broken");
+        }, batchLoader, 10, Duration.ofMillis(2), Duration.ofSeconds(5), meterRegistry);
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> loader.load(1L))
+                .withMessage("broken");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
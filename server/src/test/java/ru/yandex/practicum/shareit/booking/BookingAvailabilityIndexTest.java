@@ -0,0 +1,185 @@
+package ru.yandex.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.shareit.item.Item;
+import ru.yandex.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityIndexTest {
+
+    private final List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private LocalDateTime start;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private BookingAvailabilityIndex bookingAvailabilityIndex;
+
+    @BeforeEach
+    void setUp() {
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    @Test
+    void reserve_shouldReserveThePeriod_ifTheItemHasNoBookings() {
+        Long itemId = 1L;
+
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(1L, itemId, 0, 2))).isTrue();
+    }
+
+    @Test
+    void reserve_shouldNotReserveThePeriod_ifItOverlapsAStoredBooking() {
+        Long itemId = 1L;
+
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class)))
+                .thenReturn(List.of(initBooking(1L, itemId, 10, 20)));
+
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(2L, itemId, 5, 11))).isFalse();
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(3L, itemId, 19, 25))).isFalse();
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(4L, itemId, 12, 15))).isFalse();
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(5L, itemId, 0, 30))).isFalse();
+    }
+
+    @Test
+    void reserve_shouldReserveThePeriod_ifItAdjoinsAStoredBooking() {
+        Long itemId = 1L;
+
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class)))
+                .thenReturn(List.of(initBooking(1L, itemId, 10, 20)));
+
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(2L, itemId, 5, 10))).isTrue();
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(3L, itemId, 20, 25))).isTrue();
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(4L, itemId, 7, 8))).isFalse();
+    }
+
+    @Test
+    void reserve_shouldFindOverlapWithALongBookingThatStartedEarlier() {
+        Long itemId = 1L;
+
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class)))
+                .thenReturn(List.of(initBooking(1L, itemId, 0, 100), initBooking(2L, itemId, 1, 2)));
+
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(3L, itemId, 50, 60))).isFalse();
+    }
+
+    @Test
+    void reserve_shouldLoadTheItemScheduleOnlyOnce() {
+        Long itemId = 1L;
+
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(1L, itemId, 0, 2))).isTrue();
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(2L, itemId, 1, 3))).isFalse();
+
+        verify(bookingRepository, times(1))
+                .findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class));
+    }
+
+    @Test
+    void release_shouldFreeThePeriod() {
+        Long itemId = 1L;
+        Booking booking = initBooking(1L, itemId, 0, 2);
+
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        assertThat(bookingAvailabilityIndex.reserve(booking)).isTrue();
+
+        bookingAvailabilityIndex.release(booking);
+
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(2L, itemId, 1, 3))).isTrue();
+    }
+
+    @Test
+    void release_shouldKeepThePeriodReserved_untilTheTransactionCommits() {
+        Long itemId = 1L;
+        Booking booking = initBooking(1L, itemId, 0, 2);
+
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingAvailabilityIndex.release(booking);
+
+            assertThat(bookingAvailabilityIndex.reserve(initBooking(2L, itemId, 1, 3))).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(3L, itemId, 1, 3))).isTrue();
+    }
+
+    @Test
+    void load_shouldLoadTheItemScheduleOnce() {
+        Long itemId = 1L;
+
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class)))
+                .thenReturn(List.of(initBooking(1L, itemId, 0, 2)));
+
+        bookingAvailabilityIndex.load(itemId);
+        bookingAvailabilityIndex.load(itemId);
+
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(2L, itemId, 1, 3))).isFalse();
+
+        verify(bookingRepository, times(1))
+                .findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class));
+    }
+
+    @Test
+    void clear_shouldReloadTheItemSchedule() {
+        Long itemId = 1L;
+
+        when(bookingRepository.findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(1L, itemId, 0, 2))).isTrue();
+
+        bookingAvailabilityIndex.clear();
+
+        assertThat(bookingAvailabilityIndex.reserve(initBooking(2L, itemId, 1, 3))).isTrue();
+
+        verify(bookingRepository, times(2))
+                .findByItemIdAndStatusInAndEndAfter(eq(itemId), eq(statuses), any(LocalDateTime.class));
+    }
+
+    private Booking initBooking(Long id, Long itemId, int startHour, int endHour) {
+        Booking booking = new Booking();
+
+        booking.setId(id);
+        booking.setStart(start.plusHours(startHour));
+        booking.setEnd(start.plusHours(endHour));
+        booking.setItem(new Item());
+        booking.getItem().setId(itemId);
+        booking.setBooker(new User());
+        booking.setStatus(BookingStatus.WAITING);
+
+        return booking;
+    }
+}
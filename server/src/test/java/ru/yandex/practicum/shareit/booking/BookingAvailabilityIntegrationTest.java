@@ -0,0 +1,119 @@
+package ru.yandex.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.shareit.item.Item;
+import ru.yandex.practicum.shareit.item.ItemRepository;
+import ru.yandex.practicum.shareit.user.User;
+import ru.yandex.practicum.shareit.user.UserRepository;
+import ru.yandex.practicum.shareit.user.UserService;
+import ru.yandex.practicum.shareit.validator.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Import({BookingServiceImpl.class, BookingAvailabilityIndex.class, CompletedRentals.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingAvailabilityIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingAvailabilityIndex bookingAvailabilityIndex;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private UserService userService;
+
+    private LocalDateTime start;
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        start = LocalDateTime.now().plusDays(1);
+
+        owner = userRepository.save(initUser("owner@user.com"));
+        booker = userRepository.save(initUser("booker@user.com"));
+        item = itemRepository.save(initItem(owner));
+
+        bookingAvailabilityIndex.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+        bookingAvailabilityIndex.clear();
+    }
+
+    @Test
+    void createBooking_shouldThrowException_ifItOverlapsACommittedBooking_andTheScheduleIsNotLoaded() {
+        bookingService.createBooking(initBooking(0, 2));
+        bookingAvailabilityIndex.clear();
+
+        assertThrows(ValidationException.class, () -> bookingService.createBooking(initBooking(1, 3)));
+        assertThat(bookingRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void createBooking_shouldCreateTheBooking_ifTheOverlappingBookingWasRejected() {
+        Booking rejected = bookingService.createBooking(initBooking(0, 2));
+
+        bookingService.approveBookingById(rejected.getId(), false, owner.getId());
+
+        assertThat(bookingService.createBooking(initBooking(1, 3)).getId()).isNotNull();
+    }
+
+    private Booking initBooking(int startHour, int endHour) {
+        Booking booking = new Booking();
+
+        booking.setStart(start.plusHours(startHour));
+        booking.setEnd(start.plusHours(endHour));
+        booking.setItem(item);
+        booking.setBooker(booker);
+
+        return booking;
+    }
+
+    private static Item initItem(User owner) {
+        Item item = new Item();
+
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+
+        return item;
+    }
+
+    private static User initUser(String email) {
+        User user = new User();
+
+        user.setEmail(email);
+        user.setName("user");
+
+        return user;
+    }
+}
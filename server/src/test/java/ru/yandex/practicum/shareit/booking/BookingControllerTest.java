@@ -10,11 +10,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.yandex.practicum.shareit.item.Item;
 import ru.yandex.practicum.shareit.item.ItemService;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 import ru.yandex.practicum.shareit.user.User;
 import ru.yandex.practicum.shareit.user.UserService;
 import ru.yandex.practicum.shareit.validator.ErrorHandler;
@@ -23,6 +25,7 @@ import ru.yandex.practicum.shareit.validator.NotFoundException;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -31,6 +34,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -68,13 +72,16 @@ class BookingControllerTest {
         Long userId = 1L;
         String state = "ALL";
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("start").descending());
+        Pageable page = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "start", "id"));
+
+        when(bookingService.getBookingsByUserId(userId, state, null, page)).thenReturn(new SliceImpl<>(List.of()));
+        when(bookingMapper.toDtos(List.of())).thenReturn(List.of());
 
         mockMvc.perform(get("/bookings?state={state}", state).header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
 
-        verify(bookingService, times(1)).getBookingsByUserId(userId, state, page);
+        verify(bookingService, times(1)).getBookingsByUserId(userId, state, null, page);
     }
 
     @Test
@@ -84,7 +91,7 @@ class BookingControllerTest {
         Long bookingId2 = 2L;
         String state = "ALL";
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("start").descending());
+        Pageable page = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "start", "id"));
 
         BookingForResponseDto bookingDto1 = initBookingForResponseDto();
         BookingForResponseDto bookingDto2 = initBookingForResponseDto();
@@ -101,14 +108,15 @@ class BookingControllerTest {
 
         String json = objectMapper.writeValueAsString(expectedBookingDto);
 
-        when(bookingService.getBookingsByUserId(userId, state, page)).thenReturn(expectedBooking);
+        when(bookingService.getBookingsByUserId(userId, state, null, page))
+                .thenReturn(new SliceImpl<>(expectedBooking));
         when(bookingMapper.toDtos(expectedBooking)).thenReturn(expectedBookingDto);
 
         mockMvc.perform(get("/bookings?state={state}", state).header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
                 .andExpect(content().json(json));
 
-        verify(bookingService, times(1)).getBookingsByUserId(userId, state, page);
+        verify(bookingService, times(1)).getBookingsByUserId(userId, state, null, page);
         verify(bookingMapper, times(1)).toDtos(expectedBooking);
     }
 
@@ -117,14 +125,14 @@ class BookingControllerTest {
         Long userId = 1L;
         String state = "ALL";
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("start").descending());
+        Pageable page = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "start", "id"));
 
-        when(bookingService.getBookingsByUserId(userId, state, page)).thenThrow(NotFoundException.class);
+        when(bookingService.getBookingsByUserId(userId, state, null, page)).thenThrow(NotFoundException.class);
 
         mockMvc.perform(get("/bookings?state={state}", state).header("X-Sharer-User-Id", userId))
                 .andExpect(status().isNotFound());
 
-        verify(bookingService, times(1)).getBookingsByUserId(userId, state, page);
+        verify(bookingService, times(1)).getBookingsByUserId(userId, state, null, page);
     }
 
     @Test
@@ -132,13 +140,16 @@ class BookingControllerTest {
         Long userId = 1L;
         String state = "ALL";
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("start").descending());
+        Pageable page = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "start", "id"));
+
+        when(bookingService.getBookingsByItemOwnerId(userId, state, null, page)).thenReturn(new SliceImpl<>(List.of()));
+        when(bookingMapper.toDtos(List.of())).thenReturn(List.of());
 
         mockMvc.perform(get("/bookings/owner?state={state}", state).header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
 
-        verify(bookingService, times(1)).getBookingsByItemOwnerId(userId, state, page);
+        verify(bookingService, times(1)).getBookingsByItemOwnerId(userId, state, null, page);
     }
 
     @Test
@@ -148,7 +159,7 @@ class BookingControllerTest {
         Long bookingId2 = 2L;
         String state = "ALL";
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("start").descending());
+        Pageable page = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "start", "id"));
 
         BookingForResponseDto bookingDto1 = initBookingForResponseDto();
         BookingForResponseDto bookingDto2 = initBookingForResponseDto();
@@ -165,14 +176,15 @@ class BookingControllerTest {
 
         String json = objectMapper.writeValueAsString(expectedBookingDto);
 
-        when(bookingService.getBookingsByItemOwnerId(userId, state, page)).thenReturn(expectedBooking);
+        when(bookingService.getBookingsByItemOwnerId(userId, state, null, page))
+                .thenReturn(new SliceImpl<>(expectedBooking));
         when(bookingMapper.toDtos(expectedBooking)).thenReturn(expectedBookingDto);
 
         mockMvc.perform(get("/bookings/owner?state={state}", state).header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
                 .andExpect(content().json(json));
 
-        verify(bookingService, times(1)).getBookingsByItemOwnerId(userId, state, page);
+        verify(bookingService, times(1)).getBookingsByItemOwnerId(userId, state, null, page);
         verify(bookingMapper, times(1)).toDtos(expectedBooking);
     }
 
@@ -181,14 +193,50 @@ class BookingControllerTest {
         Long userId = 1L;
         String state = "ALL";
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("start").descending());
+        Pageable page = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "start", "id"));
 
-        when(bookingService.getBookingsByItemOwnerId(userId, state, page)).thenThrow(NotFoundException.class);
+        when(bookingService.getBookingsByItemOwnerId(userId, state, null, page)).thenThrow(NotFoundException.class);
 
         mockMvc.perform(get("/bookings/owner?state={state}", state).header("X-Sharer-User-Id", userId))
                 .andExpect(status().isNotFound());
 
-        verify(bookingService, times(1)).getBookingsByItemOwnerId(userId, state, page);
+        verify(bookingService, times(1)).getBookingsByItemOwnerId(userId, state, null, page);
+    }
+
+    @Test
+    void getBookingsByUserId_shouldReturnTheNextCursor_ifThereIsANextSlice() throws Exception {
+        Long userId = 1L;
+        String state = "ALL";
+        Integer size = 2;
+        Pageable page = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "start", "id"));
+        KeysetCursor cursor = KeysetCursor.of(LocalDateTime.of(2023, 5, 8, 12, 5), 7L);
+
+        Booking booking1 = initBooking();
+        Booking booking2 = initBooking();
+        booking1.setId(5L);
+        booking2.setId(4L);
+
+        List<Booking> expectedBooking = List.of(booking1, booking2);
+        String nextCursor = KeysetCursor.of(booking2.getStart(), booking2.getId()).encode();
+
+        when(bookingService.getBookingsByUserId(userId, state, cursor, page))
+                .thenReturn(new SliceImpl<>(expectedBooking, page, true));
+        when(bookingMapper.toDtos(expectedBooking)).thenReturn(List.of());
+
+        mockMvc.perform(get("/bookings?state={state}&size={size}&cursor={cursor}", state, size, cursor.encode())
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", nextCursor));
+
+        verify(bookingService, times(1)).getBookingsByUserId(userId, state, cursor, page);
+    }
+
+    @Test
+    void getBookingsByItemOwnerId_shouldResponseWithBadRequest_ifTheCursorIsInvalid() throws Exception {
+        mockMvc.perform(get("/bookings/owner?cursor={cursor}", "not a cursor").header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).getBookingsByItemOwnerId(any(), any(), any(), any());
     }
 
     @Test
@@ -0,0 +1,253 @@
+package ru.yandex.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.yandex.practicum.shareit.item.Item;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
+import ru.yandex.practicum.shareit.request.ItemRequest;
+import ru.yandex.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private LocalDateTime currentDateTime;
+    private User booker;
+    private Item item1;
+    private Item item2;
+
+    @BeforeEach
+    void setUp() {
+        currentDateTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        User owner = initUser("owner@user.com");
+        booker = initUser("booker@user.com");
+
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+
+        item1 = initItem(owner);
+        item2 = initItem(owner);
+
+        entityManager.persist(item1);
+        entityManager.persist(item2);
+    }
+
+    @Test
+    void findLastApprovedBookingsByItemIds_shouldReturnOneBookingPerItem() {
+        Booking lastOfItem1 = persistBooking(item1, -2, BookingStatus.APPROVED);
+        persistBooking(item1, -5, BookingStatus.APPROVED);
+        persistBooking(item1, -1, BookingStatus.REJECTED);
+        persistBooking(item1, 3, BookingStatus.APPROVED);
+        Booking lastOfItem2 = persistBooking(item2, -10, BookingStatus.APPROVED);
+
+        List<Booking> bookings = bookingRepository.findLastApprovedBookingsByItemIds(
+                List.of(item1.getId(), item2.getId()), currentDateTime);
+
+        assertThat(bookings.stream().map(Booking::getId).collect(Collectors.toList()))
+                .containsExactlyInAnyOrder(lastOfItem1.getId(), lastOfItem2.getId());
+    }
+
+    @Test
+    void findNextApprovedBookingsByItemIds_shouldReturnOneBookingPerItem() {
+        persistBooking(item1, -2, BookingStatus.APPROVED);
+        persistBooking(item1, 5, BookingStatus.APPROVED);
+        persistBooking(item1, 1, BookingStatus.WAITING);
+        Booking nextOfItem1 = persistBooking(item1, 3, BookingStatus.APPROVED);
+        persistBooking(item2, -10, BookingStatus.APPROVED);
+
+        List<Booking> bookings = bookingRepository.findNextApprovedBookingsByItemIds(
+                List.of(item1.getId(), item2.getId()), currentDateTime);
+
+        assertThat(bookings.stream().map(Booking::getId).collect(Collectors.toList()))
+                .containsExactly(nextOfItem1.getId());
+    }
+
+    @Test
+    void findSlice_shouldReturnBookingsAfterTheCursor() {
+        Booking booking1 = persistBooking(item1, -3, BookingStatus.APPROVED);
+        Booking booking2 = persistBooking(item1, -2, BookingStatus.APPROVED);
+        Booking booking3 = persistBooking(item2, -2, BookingStatus.WAITING);
+        Booking booking4 = persistBooking(item2, -1, BookingStatus.APPROVED);
+        Pageable page = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start", "id"));
+        Specification<Booking> byBooker = BookingSpecification.byBookerId(booker.getId());
+
+        Slice<Booking> first = bookingRepository.findSlice(byBooker, page);
+
+        assertThat(first.getContent()).containsExactly(booking4, booking3);
+        assertThat(first.hasNext()).isTrue();
+
+        KeysetCursor cursor = KeysetCursor.of(booking3.getStart(), booking3.getId());
+        Slice<Booking> second = bookingRepository.findSlice(byBooker.and(BookingSpecification.isBefore(cursor)), page);
+
+        assertThat(second.getContent()).containsExactly(booking2, booking1);
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void findSlice_shouldLoadTheItemsOwnersAndBookersInASingleStatement() {
+        for (int i = 0; i < 5; i++) {
+            persistBookingOfAnotherUser(i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = getStatistics();
+        Pageable page = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "start", "id"));
+
+        List<Booking> bookings = bookingRepository.findSlice(Specification.where(null), page).getContent();
+        bookings.forEach(this::readMappedFields);
+
+        assertThat(bookings).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findById_shouldLoadTheItemOwnerAndBookerInASingleStatement() {
+        Long id = persistBookingOfAnotherUser(0).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = getStatistics();
+
+        readMappedFields(bookingRepository.findById(id).orElseThrow());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteChunkByBookerIdOrItemOwnerId_shouldRemoveUpToLimitBookingsOfTheUserItems() {
+        persistBooking(item1, 1, BookingStatus.APPROVED);
+        persistBooking(item2, 2, BookingStatus.WAITING);
+        persistBooking(item2, 3, BookingStatus.WAITING);
+        Booking otherBooking = persistBookingOfAnotherUser(0);
+        entityManager.flush();
+        entityManager.clear();
+
+        Long ownerId = item1.getOwner().getId();
+
+        assertThat(bookingRepository.deleteChunkByBookerIdOrItemOwnerId(ownerId, 2)).isEqualTo(2);
+        assertThat(bookingRepository.deleteChunkByBookerIdOrItemOwnerId(ownerId, 2)).isEqualTo(1);
+        assertThat(bookingRepository.findAll()).extracting(Booking::getId).containsExactly(otherBooking.getId());
+    }
+
+    @Test
+    void deleteChunkByBookerIdOrItemOwnerId_shouldRemoveTheBookingsOfTheBooker() {
+        persistBooking(item1, 1, BookingStatus.APPROVED);
+        Booking otherBooking = persistBookingOfAnotherUser(0);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(bookingRepository.deleteChunkByBookerIdOrItemOwnerId(booker.getId(), 10)).isEqualTo(1);
+        assertThat(bookingRepository.findAll()).extracting(Booking::getId).containsExactly(otherBooking.getId());
+    }
+
+    @Test
+    void findApprovedRentalsByIdGreaterThan_shouldReturnTheApprovedBookingsAfterTheId() {
+        Booking first = persistBooking(item1, -3, BookingStatus.APPROVED);
+        persistBooking(item1, -2, BookingStatus.REJECTED);
+        Booking second = persistBooking(item2, 1, BookingStatus.APPROVED);
+        Booking third = persistBooking(item2, 2, BookingStatus.APPROVED);
+
+        List<ApprovedRental> rentals = bookingRepository.findApprovedRentalsByIdGreaterThan(first.getId(),
+                PageRequest.of(0, 1));
+
+        assertThat(rentals).hasSize(1);
+        assertThat(rentals.get(0).getId()).isEqualTo(second.getId());
+        assertThat(rentals.get(0).getBookerId()).isEqualTo(booker.getId());
+        assertThat(rentals.get(0).getItemId()).isEqualTo(item2.getId());
+        assertThat(rentals.get(0).getEnd()).isEqualTo(second.getEnd());
+        assertThat(bookingRepository.findApprovedRentalsByIdGreaterThan(second.getId(), PageRequest.of(0, 10)))
+                .extracting(ApprovedRental::getId).containsExactly(third.getId());
+    }
+
+    private Statistics getStatistics() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private void readMappedFields(Booking booking) {
+        booking.getItem().getName();
+        booking.getItem().getOwner().getName();
+        booking.getBooker().getName();
+        if (booking.getItem().getRequest() != null) {
+            booking.getItem().getRequest().getDescription();
+        }
+    }
+
+    private Booking persistBookingOfAnotherUser(int index) {
+        User owner = entityManager.persist(initUser("owner" + index + "@user.com"));
+        User user = entityManager.persist(initUser("booker" + index + "@user.com"));
+
+        ItemRequest request = new ItemRequest();
+        request.setDescription("Нужна дрель");
+        request.setRequestor(user);
+        request.setCreated(currentDateTime);
+        entityManager.persist(request);
+
+        Item item = initItem(owner);
+        item.setRequest(request);
+        entityManager.persist(item);
+
+        Booking booking = persistBooking(item, index, BookingStatus.WAITING);
+        booking.setBooker(user);
+
+        return booking;
+    }
+
+    private Booking persistBooking(Item item, int startDays, BookingStatus status) {
+        Booking booking = new Booking();
+
+        booking.setStart(currentDateTime.plusDays(startDays));
+        booking.setEnd(currentDateTime.plusDays(startDays).plusHours(1));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+
+        return entityManager.persist(booking);
+    }
+
+    private Item initItem(User owner) {
+        Item item = new Item();
+
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+
+        return item;
+    }
+
+    private User initUser(String email) {
+        User user = new User();
+
+        user.setEmail(email);
+        user.setName("user");
+
+        return user;
+    }
+}
@@ -3,16 +3,22 @@ package ru.yandex.practicum.shareit.booking;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import ru.yandex.practicum.shareit.item.Item;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 import ru.yandex.practicum.shareit.user.User;
-import ru.yandex.practicum.shareit.user.UserRepository;
+import ru.yandex.practicum.shareit.user.UserService;
 import ru.yandex.practicum.shareit.validator.NotFoundException;
 import ru.yandex.practicum.shareit.validator.ValidationException;
 
@@ -24,6 +30,9 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -40,7 +49,13 @@ class BookingServiceImplTest {
     private BookingRepository bookingRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserService userService;
+
+    @Mock
+    private BookingAvailabilityIndex bookingAvailabilityIndex;
+
+    @Mock
+    private CompletedRentals completedRentals;
 
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -56,12 +71,12 @@ class BookingServiceImplTest {
         Integer size = 20;
         Pageable page = PageRequest.of(0, size, Sort.by("start").descending());
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userService.existsById(userId)).thenReturn(true);
 
         assertThatExceptionOfType(ValidationException.class)
-                .isThrownBy(() -> bookingService.getBookingsByUserId(userId, "UNDEFINED", page));
+                .isThrownBy(() -> bookingService.getBookingsByUserId(userId, "UNDEFINED", null, page));
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
     }
 
     @Test
@@ -71,13 +86,13 @@ class BookingServiceImplTest {
         String state = "ALL";
         Pageable page = PageRequest.of(0, size, Sort.by("start").descending());
 
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userService.existsById(userId)).thenReturn(false);
 
         assertThatExceptionOfType(NotFoundException.class)
-                .isThrownBy(() -> bookingService.getBookingsByUserId(userId, state, page));
+                .isThrownBy(() -> bookingService.getBookingsByUserId(userId, state, null, page));
 
-        verify(userRepository, times(1)).existsById(userId);
-        verifyNoMoreInteractions(userRepository);
+        verify(userService, times(1)).existsById(userId);
+        verifyNoMoreInteractions(userService);
     }
 
     @Test
@@ -86,12 +101,12 @@ class BookingServiceImplTest {
         Integer size = 20;
         Pageable page = PageRequest.of(0, size, Sort.by("start").descending());
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userService.existsById(userId)).thenReturn(true);
 
         assertThatExceptionOfType(ValidationException.class)
-                .isThrownBy(() -> bookingService.getBookingsByItemOwnerId(userId, "UNDEFINED", page));
+                .isThrownBy(() -> bookingService.getBookingsByItemOwnerId(userId, "UNDEFINED", null, page));
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
     }
 
     @Test
@@ -101,13 +116,62 @@ class BookingServiceImplTest {
         String state = "ALL";
         Pageable page = PageRequest.of(0, size, Sort.by("start").descending());
 
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userService.existsById(userId)).thenReturn(false);
 
         assertThatExceptionOfType(NotFoundException.class)
-                .isThrownBy(() -> bookingService.getBookingsByItemOwnerId(userId, state, page));
+                .isThrownBy(() -> bookingService.getBookingsByItemOwnerId(userId, state, null, page));
 
-        verify(userRepository, times(1)).existsById(userId);
-        verifyNoMoreInteractions(userRepository);
+        verify(userService, times(1)).existsById(userId);
+        verifyNoMoreInteractions(userService);
+    }
+
+    @Test
+    void getBookingsByUserId_shouldReturnASliceAtTheOffset_ifThereIsNoCursor() {
+        Long userId = 1L;
+        String state = "ALL";
+        Pageable page = PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "start", "id"));
+        Slice<Booking> bookings = new SliceImpl<>(List.of(initBooking()));
+
+        when(userService.existsById(userId)).thenReturn(true);
+        when(bookingRepository.findSlice(any(), eq(page))).thenReturn(bookings);
+
+        assertThat(bookingService.getBookingsByUserId(userId, state, null, page)).isEqualTo(bookings);
+
+        verify(bookingRepository, never())
+                .findAll(ArgumentMatchers.<Specification<Booking>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void getBookingsByUserId_shouldReturnASliceAfterTheCursor_ifTheCursorIsGiven() {
+        Long userId = 1L;
+        String state = "ALL";
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
+        KeysetCursor cursor = KeysetCursor.of(currentDateTime, 10L);
+        Slice<Booking> bookings = new SliceImpl<>(List.of(initBooking()));
+
+        when(userService.existsById(userId)).thenReturn(true);
+        when(bookingRepository.findSlice(any(), eq(PageRequest.of(0, 20, sort)))).thenReturn(bookings);
+
+        assertThat(bookingService.getBookingsByUserId(userId, state, cursor, PageRequest.of(3, 20, sort)))
+                .isEqualTo(bookings);
+
+        verify(bookingRepository, never())
+                .findAll(ArgumentMatchers.<Specification<Booking>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void getBookingsByItemOwnerId_shouldReturnASliceAfterTheCursor_ifTheCursorIsGiven() {
+        Long userId = 1L;
+        String state = "WAITING";
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
+        KeysetCursor cursor = KeysetCursor.of(currentDateTime, 10L);
+        Slice<Booking> bookings = new SliceImpl<>(List.of(initBooking()));
+
+        when(userService.existsById(userId)).thenReturn(true);
+        when(bookingRepository.findSlice(any(), eq(PageRequest.of(0, 20, sort)))).thenReturn(bookings);
+
+        assertThat(bookingService.getBookingsByItemOwnerId(userId, state, cursor, PageRequest.of(0, 20, sort)))
+                .isEqualTo(bookings);
     }
 
     @Test
@@ -163,10 +227,33 @@ class BookingServiceImplTest {
         booking.getBooker().setId(userId);
 
         when(bookingRepository.save(booking)).thenReturn(booking);
+        when(bookingAvailabilityIndex.reserve(booking)).thenReturn(true);
 
         assertThat(bookingService.createBooking(booking)).isEqualTo(booking);
 
+        InOrder order = inOrder(bookingAvailabilityIndex, bookingRepository);
+        order.verify(bookingAvailabilityIndex, times(1)).load(itemId);
+        order.verify(bookingRepository, times(1)).save(booking);
+        order.verify(bookingAvailabilityIndex, times(1)).reserve(booking);
+    }
+
+    @Test
+    void createBooking_shouldThrowAnException_ifTheItemIsAlreadyBookedForThePeriod() {
+        Long userId = 1L;
+        Long itemId = 2L;
+
+        Booking booking = initBooking();
+        booking.getItem().setId(itemId);
+        booking.getBooker().setId(userId);
+
+        when(bookingRepository.save(booking)).thenReturn(booking);
+        when(bookingAvailabilityIndex.reserve(booking)).thenReturn(false);
+
+        assertThatExceptionOfType(ValidationException.class)
+                .isThrownBy(() -> bookingService.createBooking(booking));
+
         verify(bookingRepository, times(1)).save(booking);
+        verify(bookingAvailabilityIndex, times(1)).reserve(booking);
     }
 
     @Test
@@ -201,6 +288,41 @@ class BookingServiceImplTest {
         verify(bookingRepository, never()).save(booking);
     }
 
+    @Test
+    void createBookings_shouldSaveAllBookingsAtOnce() {
+        Booking booking1 = initBooking();
+        Booking booking2 = initBooking();
+        booking1.getBooker().setId(1L);
+        booking2.getBooker().setId(1L);
+        booking1.setStatus(null);
+        booking2.setStatus(null);
+        List<Booking> bookings = List.of(booking1, booking2);
+
+        when(bookingRepository.saveAll(bookings)).thenReturn(bookings);
+        when(bookingAvailabilityIndex.reserve(any(Booking.class))).thenReturn(true);
+
+        assertThat(bookingService.createBookings(bookings)).isEqualTo(bookings);
+        assertThat(bookings).allMatch(booking -> booking.getStatus() == BookingStatus.WAITING);
+
+        verify(bookingRepository, times(1)).saveAll(bookings);
+        verify(bookingRepository, never()).save(any());
+        verify(bookingAvailabilityIndex, times(2)).reserve(any(Booking.class));
+    }
+
+    @Test
+    void createBookings_shouldNotSaveAnything_ifOneOfTheItemsIsNotAvailable() {
+        Booking booking1 = initBooking();
+        Booking booking2 = initBooking();
+        booking1.getBooker().setId(1L);
+        booking2.getBooker().setId(1L);
+        booking2.getItem().setAvailable(false);
+
+        assertThatExceptionOfType(ValidationException.class)
+                .isThrownBy(() -> bookingService.createBookings(List.of(booking1, booking2)));
+
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
     @Test
     void approveBookingById_shouldApproveTheBooking() {
         Long userId = 1L;
@@ -221,6 +343,8 @@ class BookingServiceImplTest {
 
         verify(bookingRepository, times(1)).findById(bookingId);
         verify(bookingRepository, times(1)).save(booking);
+        verify(bookingAvailabilityIndex, never()).release(booking);
+        verify(completedRentals, times(1)).add(booking);
     }
 
     @Test
@@ -243,6 +367,8 @@ class BookingServiceImplTest {
 
         verify(bookingRepository, times(1)).findById(bookingId);
         verify(bookingRepository, times(1)).save(booking);
+        verify(bookingAvailabilityIndex, times(1)).release(booking);
+        verify(completedRentals, never()).add(booking);
     }
 
     @Test
@@ -310,139 +436,128 @@ class BookingServiceImplTest {
     }
 
     @Test
-    void getBookingsByItemIds_shouldReturnEmptyListOfBookings() {
-        Long itemId1 = 1L;
-        Long itemId2 = 2L;
-        List<Long> itemIds = List.of(itemId1, itemId2);
-        BookingStatus status = BookingStatus.APPROVED;
-        Sort sort = Sort.by("start").ascending();
+    void getLastBookingsByItemIds_shouldReturnEmptyMapOfBookings() {
+        List<Long> itemIds = List.of(1L, 2L);
 
-        when(bookingRepository.findByItemIdInAndStatus(itemIds, status, sort)).thenReturn(Collections.emptyList());
+        try (MockedStatic<LocalDateTime> mockDateTime = mockStatic(LocalDateTime.class)) {
+            mockDateTime.when(LocalDateTime::now).thenReturn(currentDateTime);
+            when(bookingRepository.findLastApprovedBookingsByItemIds(itemIds, currentDateTime))
+                    .thenReturn(Collections.emptyList());
 
-        assertThat(bookingService.getBookingsByItemIds(itemIds)).isEqualTo(Map.of());
+            assertThat(bookingService.getLastBookingsByItemIds(itemIds)).isEqualTo(Map.of());
+        }
 
-        verify(bookingRepository, times(1)).findByItemIdInAndStatus(itemIds, status, sort);
+        verify(bookingRepository, times(1)).findLastApprovedBookingsByItemIds(itemIds, currentDateTime);
     }
 
     @Test
-    void getBookingsByItemIds_shouldReturnAListOfBookingsForItemIds() {
+    void getLastBookingsByItemIds_shouldReturnTheLastBookingForEachItem() {
         Long itemId1 = 1L;
         Long itemId2 = 2L;
         List<Long> itemIds = List.of(itemId1, itemId2);
-        BookingStatus status = BookingStatus.APPROVED;
-        Sort sort = Sort.by("start").ascending();
 
         Booking booking1 = initBooking();
         Booking booking2 = initBooking();
-        Booking booking3 = initBooking();
 
         booking1.getItem().setId(itemId1);
-        booking2.getItem().setId(itemId1);
-        booking3.getItem().setId(itemId2);
+        booking2.getItem().setId(itemId2);
 
-        List<Booking> bookings = List.of(booking1, booking2, booking3);
-        Map<Long, List<Booking>> expected = Map.of(itemId1, List.of(booking1, booking2), itemId2, List.of(booking3));
+        Map<Long, Booking> expected = Map.of(itemId1, booking1, itemId2, booking2);
 
-        when(bookingRepository.findByItemIdInAndStatus(itemIds, status, sort)).thenReturn(bookings);
+        try (MockedStatic<LocalDateTime> mockDateTime = mockStatic(LocalDateTime.class)) {
+            mockDateTime.when(LocalDateTime::now).thenReturn(currentDateTime);
+            when(bookingRepository.findLastApprovedBookingsByItemIds(itemIds, currentDateTime))
+                    .thenReturn(List.of(booking1, booking2));
 
-        assertThat(bookingService.getBookingsByItemIds(itemIds)).isEqualTo(expected);
+            assertThat(bookingService.getLastBookingsByItemIds(itemIds)).isEqualTo(expected);
+        }
 
-        verify(bookingRepository, times(1)).findByItemIdInAndStatus(itemIds, status, sort);
+        verify(bookingRepository, times(1)).findLastApprovedBookingsByItemIds(itemIds, currentDateTime);
     }
 
     @Test
-    void getBookingsByItemId_shouldReturnEmptyListOfBookings() {
-        Long itemId = 1L;
-        BookingStatus status = BookingStatus.APPROVED;
-        Sort sort = Sort.by("start").ascending();
+    void getNextBookingsByItemIds_shouldReturnTheNextBookingForEachItem() {
+        Long itemId1 = 1L;
+        Long itemId2 = 2L;
+        List<Long> itemIds = List.of(itemId1, itemId2);
 
-        when(bookingRepository.findByItemIdAndStatus(itemId, status, sort)).thenReturn(Collections.emptyList());
+        Booking booking = initBooking();
+        booking.getItem().setId(itemId2);
 
-        assertThat(bookingService.getBookingsByItemId(itemId)).isEmpty();
+        try (MockedStatic<LocalDateTime> mockDateTime = mockStatic(LocalDateTime.class)) {
+            mockDateTime.when(LocalDateTime::now).thenReturn(currentDateTime);
+            when(bookingRepository.findNextApprovedBookingsByItemIds(itemIds, currentDateTime))
+                    .thenReturn(List.of(booking));
 
-        verify(bookingRepository, times(1)).findByItemIdAndStatus(itemId, status, sort);
+            assertThat(bookingService.getNextBookingsByItemIds(itemIds)).isEqualTo(Map.of(itemId2, booking));
+        }
+
+        verify(bookingRepository, times(1)).findNextApprovedBookingsByItemIds(itemIds, currentDateTime);
     }
 
     @Test
-    void getBookingsByItemId_shouldReturnAListOfBookingsForItemId() {
+    void getLastBookingByItemId_shouldReturnTheLastBookingBeforeTheCurrentTime() {
         Long itemId = 1L;
         BookingStatus status = BookingStatus.APPROVED;
-        Sort sort = Sort.by("start").ascending();
-
-        Booking booking1 = initBooking();
-        Booking booking2 = initBooking();
-
-        booking1.getItem().setId(itemId);
-        booking2.getItem().setId(itemId);
 
-        List<Booking> expected = List.of(booking1, booking2);
+        Booking booking = initBooking();
 
-        when(bookingRepository.findByItemIdAndStatus(itemId, status, sort)).thenReturn(expected);
+        try (MockedStatic<LocalDateTime> mockDateTime = mockStatic(LocalDateTime.class)) {
+            mockDateTime.when(LocalDateTime::now).thenReturn(currentDateTime);
+            when(bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                    itemId, status, currentDateTime)).thenReturn(Optional.of(booking));
 
-        assertThat(bookingService.getBookingsByItemId(itemId)).isEqualTo(expected);
+            assertThat(bookingService.getLastBookingByItemId(itemId)).isEqualTo(booking);
+        }
 
-        verify(bookingRepository, times(1)).findByItemIdAndStatus(itemId, status, sort);
+        verify(bookingRepository, times(1)).findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                itemId, status, currentDateTime);
     }
 
     @Test
-    void getLastBooking_shouldReturnTheLastBookingBeforeTheCurrentTime() {
-        Booking booking1 = initBooking();
-        Booking booking2 = initBooking();
-
-        booking1.setStart(currentDateTime.minusHours(2));
-        booking1.setEnd(currentDateTime.minusHours(1));
-
-        booking2.setStart(currentDateTime.plusHours(1));
-        booking1.setEnd(currentDateTime.plusHours(2));
-
-        assertThat(bookingService.getLastBooking(null)).isNull();
-        assertThat(bookingService.getLastBooking(List.of())).isNull();
-
-        try (MockedStatic<LocalDateTime> mockDateTime = mockStatic(LocalDateTime.class)) {
-            mockDateTime.when(LocalDateTime::now).thenReturn(currentDateTime);
-            assertThat(bookingService.getLastBooking(List.of(booking1, booking2))).isEqualTo(booking1);
-        }
-
-        booking1.setEnd(currentDateTime.plusHours(1));
+    void getLastBookingByItemId_shouldReturnNull_ifThereIsNoBookingBeforeTheCurrentTime() {
+        Long itemId = 1L;
+        BookingStatus status = BookingStatus.APPROVED;
 
         try (MockedStatic<LocalDateTime> mockDateTime = mockStatic(LocalDateTime.class)) {
             mockDateTime.when(LocalDateTime::now).thenReturn(currentDateTime);
-            assertThat(bookingService.getLastBooking(List.of(booking1, booking2))).isEqualTo(booking1);
-        }
+            when(bookingRepository.findFirstByItemIdAndStatusAndStartBeforeOrderByStartDesc(
+                    itemId, status, currentDateTime)).thenReturn(Optional.empty());
 
-        booking1.setStart(currentDateTime.plusHours(1));
-        booking1.setEnd(currentDateTime.plusHours(2));
-
-        try (MockedStatic<LocalDateTime> mockDateTime = mockStatic(LocalDateTime.class)) {
-            mockDateTime.when(LocalDateTime::now).thenReturn(currentDateTime);
-            assertThat(bookingService.getLastBooking(List.of(booking1, booking2))).isEqualTo(null);
+            assertThat(bookingService.getLastBookingByItemId(itemId)).isNull();
         }
     }
 
     @Test
-    void getNextBooking_shouldReturnTheFirstBookingAfterTheCurrentTime() {
-        Booking booking1 = initBooking();
-        Booking booking2 = initBooking();
-
-        booking1.setStart(currentDateTime.minusHours(2));
-        booking1.setEnd(currentDateTime.minusHours(1));
-
-        booking2.setStart(currentDateTime.plusHours(1));
-        booking2.setEnd(currentDateTime.plusHours(2));
+    void getNextBookingByItemId_shouldReturnTheFirstBookingAfterTheCurrentTime() {
+        Long itemId = 1L;
+        BookingStatus status = BookingStatus.APPROVED;
 
-        assertThat(bookingService.getNextBooking(null)).isNull();
-        assertThat(bookingService.getNextBooking(List.of())).isNull();
+        Booking booking = initBooking();
 
         try (MockedStatic<LocalDateTime> mockDateTime = mockStatic(LocalDateTime.class)) {
             mockDateTime.when(LocalDateTime::now).thenReturn(currentDateTime);
-            assertThat(bookingService.getNextBooking(List.of(booking1, booking2))).isEqualTo(booking2);
+            when(bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(
+                    itemId, status, currentDateTime)).thenReturn(Optional.of(booking));
+
+            assertThat(bookingService.getNextBookingByItemId(itemId)).isEqualTo(booking);
         }
 
-        booking2.setStart(currentDateTime.minusHours(2));
+        verify(bookingRepository, times(1)).findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(
+                itemId, status, currentDateTime);
+    }
+
+    @Test
+    void getNextBookingByItemId_shouldReturnNull_ifThereIsNoBookingAfterTheCurrentTime() {
+        Long itemId = 1L;
+        BookingStatus status = BookingStatus.APPROVED;
 
         try (MockedStatic<LocalDateTime> mockDateTime = mockStatic(LocalDateTime.class)) {
             mockDateTime.when(LocalDateTime::now).thenReturn(currentDateTime);
-            assertThat(bookingService.getNextBooking(List.of(booking1, booking2))).isEqualTo(null);
+            when(bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(
+                    itemId, status, currentDateTime)).thenReturn(Optional.empty());
+
+            assertThat(bookingService.getNextBookingByItemId(itemId)).isNull();
         }
     }
 
@@ -0,0 +1,119 @@
+package ru.yandex.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.yandex.practicum.shareit.item.Item;
+import ru.yandex.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompletedRentalsTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private CompletedRentals completedRentals;
+
+    @Test
+    void isCompleted_shouldAskTheDatabase_ifTheRentalsAreNotLoaded() {
+        when(bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(
+                eq(2L), eq(1L), eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(true);
+
+        assertThat(completedRentals.isCompleted(1L, 2L)).isTrue();
+    }
+
+    @Test
+    void isCompleted_shouldUseTheEarliestEndOfTheLoadedBookings_withoutAQuery() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findApprovedRentalsByIdGreaterThan(0L, PageRequest.of(0, 10_000)))
+                .thenReturn(List.of(initRental(1L, 1L, 2L, now.plusDays(1)), initRental(2L, 1L, 2L, now.minusDays(1)),
+                        initRental(3L, 1L, 3L, now.plusDays(1))));
+
+        completedRentals.load();
+
+        assertThat(completedRentals.isCompleted(1L, 2L)).isTrue();
+        assertThat(completedRentals.isCompleted(1L, 3L)).isFalse();
+        assertThat(completedRentals.isCompleted(4L, 2L)).isFalse();
+        verify(bookingRepository, never()).existsByItemIdAndBookerIdAndStatusAndEndBefore(any(), any(), any(), any());
+    }
+
+    @Test
+    void isCompleted_shouldReturnTrue_onceTheAddedBookingHasEnded() {
+        when(bookingRepository.findApprovedRentalsByIdGreaterThan(0L, PageRequest.of(0, 10_000)))
+                .thenReturn(List.of());
+        completedRentals.load();
+
+        completedRentals.add(initBooking(1L, 2L, LocalDateTime.now().plusDays(1)));
+        assertThat(completedRentals.isCompleted(1L, 2L)).isFalse();
+
+        completedRentals.add(initBooking(1L, 2L, LocalDateTime.now().minusSeconds(1)));
+        assertThat(completedRentals.isCompleted(1L, 2L)).isTrue();
+    }
+
+    @Test
+    void removeByBookerId_shouldDropTheRentalsOfTheBooker() {
+        when(bookingRepository.findApprovedRentalsByIdGreaterThan(0L, PageRequest.of(0, 10_000)))
+                .thenReturn(List.of(initRental(1L, 1L, 2L, LocalDateTime.now().minusDays(1)),
+                        initRental(2L, 5L, 2L, LocalDateTime.now().minusDays(1))));
+        completedRentals.load();
+
+        completedRentals.removeByBookerId(1L);
+
+        assertThat(completedRentals.isCompleted(1L, 2L)).isFalse();
+        assertThat(completedRentals.isCompleted(5L, 2L)).isTrue();
+        verify(bookingRepository, times(1)).findApprovedRentalsByIdGreaterThan(any(), any());
+    }
+
+    private static Booking initBooking(Long bookerId, Long itemId, LocalDateTime end) {
+        Booking booking = new Booking();
+
+        booking.setBooker(new User());
+        booking.getBooker().setId(bookerId);
+        booking.setItem(new Item());
+        booking.getItem().setId(itemId);
+        booking.setStart(end.minusHours(1));
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.APPROVED);
+
+        return booking;
+    }
+
+    private static ApprovedRental initRental(Long id, Long bookerId, Long itemId, LocalDateTime end) {
+        return new ApprovedRental() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
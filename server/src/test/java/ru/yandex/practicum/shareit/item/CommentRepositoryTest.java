@@ -0,0 +1,166 @@
+package ru.yandex.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import ru.yandex.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class CommentRepositoryTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2023, 5, 8, 12, 0);
+    private static final Sort SORT_BY_CREATED = Sort.by(Sort.Direction.DESC, "created", "id");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private User author;
+    private Item item1;
+    private Item item2;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(initUser("owner@user.com"));
+        author = entityManager.persist(initUser("author@user.com"));
+        item1 = entityManager.persist(initItem(owner));
+        item2 = entityManager.persist(initItem(owner));
+    }
+
+    @Test
+    void findLatestIdsByItemIdIn_shouldReturnTheNewestCommentsOfEachItem_upToTheLimit() {
+        Comment oldest = persistComment(item1, author, 1);
+        Comment tie1 = persistComment(item1, author, 2);
+        Comment tie2 = persistComment(item1, author, 2);
+        Comment other = persistComment(item2, author, 1);
+
+        List<Long> ids = commentRepository.findLatestIdsByItemIdIn(List.of(item1.getId(), item2.getId()), 2);
+
+        assertThat(ids).containsExactlyInAnyOrder(tie1.getId(), tie2.getId(), other.getId())
+                .doesNotContain(oldest.getId());
+    }
+
+    @Test
+    void findByItemIdBefore_shouldReturnTheCommentsAfterTheCursor_newestFirst() {
+        Comment oldest = persistComment(item1, author, 1);
+        Comment tie1 = persistComment(item1, author, 2);
+        Comment tie2 = persistComment(item1, author, 2);
+        persistComment(item2, author, 1);
+
+        Slice<Comment> first = commentRepository.findByItemId(item1.getId(), PageRequest.of(0, 1, SORT_BY_CREATED));
+        Slice<Comment> second = commentRepository.findByItemIdBefore(item1.getId(), tie2.getCreated(), tie2.getId(),
+                PageRequest.of(0, 1, SORT_BY_CREATED));
+        Slice<Comment> last = commentRepository.findByItemIdBefore(item1.getId(), tie1.getCreated(), tie1.getId(),
+                PageRequest.of(0, 1, SORT_BY_CREATED));
+
+        assertThat(first.getContent()).containsExactly(tie2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).containsExactly(tie1);
+        assertThat(last.getContent()).containsExactly(oldest);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void incrementCommentCount_shouldAddTheCommentToTheCountOfTheItem() {
+        itemRepository.incrementCommentCount(item1.getId());
+        itemRepository.incrementCommentCount(item1.getId());
+        entityManager.clear();
+
+        assertThat(itemRepository.findById(item1.getId())).hasValueSatisfying(item ->
+                assertThat(item.getCommentCount()).isEqualTo(2));
+        assertThat(itemRepository.findById(item2.getId())).hasValueSatisfying(item ->
+                assertThat(item.getCommentCount()).isZero());
+    }
+
+    @Test
+    void recountCommentsChunkByAuthorId_shouldLeaveOutTheCommentsOfTheAuthor_andStopOnceTheCountsAreRight() {
+        User other = entityManager.persist(initUser("other@user.com"));
+        persistComment(item1, author, 1);
+        persistComment(item1, other, 2);
+        persistComment(item2, other, 1);
+        itemRepository.incrementCommentCount(item1.getId());
+        itemRepository.incrementCommentCount(item1.getId());
+        itemRepository.incrementCommentCount(item2.getId());
+
+        assertThat(itemRepository.recountCommentsChunkByAuthorId(author.getId(), 10)).isEqualTo(1);
+        assertThat(itemRepository.recountCommentsChunkByAuthorId(author.getId(), 10)).isZero();
+        entityManager.clear();
+
+        assertThat(itemRepository.findById(item1.getId())).hasValueSatisfying(item ->
+                assertThat(item.getCommentCount()).isEqualTo(1));
+        assertThat(itemRepository.findById(item2.getId())).hasValueSatisfying(item ->
+                assertThat(item.getCommentCount()).isEqualTo(1));
+    }
+
+    @Test
+    void backfillCommentCount_shouldSetTheCountsOfTheCommentsAddedBeforeTheColumn() {
+        persistComment(item1, author, 1);
+        persistComment(item1, author, 2);
+        entityManager.flush();
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/backfill-comment-count.sql"));
+            return null;
+        });
+        entityManager.clear();
+
+        assertThat(itemRepository.findById(item1.getId())).hasValueSatisfying(item ->
+                assertThat(item.getCommentCount()).isEqualTo(2));
+        assertThat(itemRepository.findById(item2.getId())).hasValueSatisfying(item ->
+                assertThat(item.getCommentCount()).isZero());
+    }
+
+    private Comment persistComment(Item item, User author, int minutes) {
+        Comment comment = new Comment();
+
+        comment.setText("Комментарий пользователя");
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setCreated(CREATED.plusMinutes(minutes));
+
+        return entityManager.persist(comment);
+    }
+
+    private static Item initItem(User owner) {
+        Item item = new Item();
+
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+
+        return item;
+    }
+
+    private static User initUser(String email) {
+        User user = new User();
+
+        user.setEmail(email);
+        user.setName("user");
+
+        return user;
+    }
+}
@@ -9,9 +9,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 import ru.yandex.practicum.shareit.request.ItemRequest;
 import ru.yandex.practicum.shareit.request.ItemRequestService;
 import ru.yandex.practicum.shareit.user.User;
@@ -20,9 +23,12 @@ import ru.yandex.practicum.shareit.validator.ErrorHandler;
 import ru.yandex.practicum.shareit.validator.NotFoundException;
 import ru.yandex.practicum.shareit.validator.ValidationException;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -31,6 +37,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,6 +62,9 @@ class ItemControllerTest {
     @Mock
     private CommentMapper commentMapper;
 
+    @Mock
+    private ItemImporter itemImporter;
+
     @InjectMocks
     private ItemController itemController;
 
@@ -65,6 +75,40 @@ class ItemControllerTest {
                 .build();
     }
 
+    @Test
+    void importItems_shouldReturnTheResultOfEveryRow() throws Exception {
+        Long userId = 1L;
+        String body = "{\"name\": \"Дрель\", \"description\": \"Простая дрель\", \"available\": true}\n";
+
+        ItemImportResultDto result = new ItemImportResultDto();
+        result.setIndex(0);
+        result.setId(5L);
+
+        when(itemImporter.importItems(eq(userId), any(InputStream.class))).thenReturn(List.of(result));
+
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(result))));
+
+        verify(itemImporter, times(1)).importItems(eq(userId), any(InputStream.class));
+    }
+
+    @Test
+    void importItems_shouldResponseWithNotFound_ifUserDoesNotExist() throws Exception {
+        Long userId = 1L;
+
+        when(itemImporter.importItems(eq(userId), any(InputStream.class))).thenThrow(NotFoundException.class);
+
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void getItemsByUserId_shouldReturnEmptyListOfItems() throws Exception {
         Long userId = 1L;
@@ -246,6 +290,7 @@ class ItemControllerTest {
         String json = objectMapper.writeValueAsString(itemDto);
 
         when(itemMapper.toItem(itemDto)).thenReturn(item);
+        when(itemService.getItemById(itemId)).thenReturn(item);
         when(itemService.updateItem(item)).thenReturn(item);
         when(itemMapper.toDto(item)).thenReturn(itemDto);
 
@@ -271,6 +316,7 @@ class ItemControllerTest {
         String json = objectMapper.writeValueAsString(itemDto);
 
         when(itemMapper.toItem(itemDto)).thenReturn(item);
+        when(itemService.getItemById(itemId)).thenReturn(item);
         when(itemService.updateItem(item)).thenThrow(NotFoundException.class);
 
         mockMvc.perform(patch("/items/{id}", itemId).header("X-Sharer-User-Id", userId)
@@ -372,6 +418,45 @@ class ItemControllerTest {
         verify(itemMapper, times(1)).toDtos(expectedItem);
     }
 
+    @Test
+    void getCommentsByItemId_shouldReturnTheNextCursor_ifThereIsANextSlice() throws Exception {
+        Long itemId = 2L;
+        Integer size = 2;
+        Pageable page = PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "created", "id"));
+        KeysetCursor cursor = KeysetCursor.of(LocalDateTime.of(2023, 5, 8, 12, 5), 7L);
+
+        Comment comment1 = initComment();
+        Comment comment2 = initComment();
+        comment1.setId(6L);
+        comment1.setCreated(LocalDateTime.of(2023, 5, 8, 12, 4));
+        comment2.setId(5L);
+        comment2.setCreated(LocalDateTime.of(2023, 5, 8, 12, 3));
+
+        List<Comment> comments = List.of(comment1, comment2);
+        String nextCursor = KeysetCursor.of(comment2.getCreated(), comment2.getId()).encode();
+
+        when(itemService.getCommentsByItemId(itemId, cursor, page)).thenReturn(new SliceImpl<>(comments, page, true));
+        when(commentMapper.toDtos(comments)).thenReturn(List.of());
+
+        mockMvc.perform(get("/items/{id}/comments?size={size}&cursor={cursor}", itemId, size, cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", nextCursor));
+
+        verify(itemService, times(1)).getCommentsByItemId(itemId, cursor, page);
+    }
+
+    @Test
+    void getCommentsByItemId_shouldResponseWithNotFound_ifItemDoesNotExist() throws Exception {
+        Long itemId = 2L;
+        Pageable page = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "created", "id"));
+
+        when(itemService.getCommentsByItemId(itemId, null, page)).thenThrow(NotFoundException.class);
+
+        mockMvc.perform(get("/items/{id}/comments", itemId))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
     @Test
     void createComment_shouldResponseWithOk() throws Exception {
         Long userId = 1L;
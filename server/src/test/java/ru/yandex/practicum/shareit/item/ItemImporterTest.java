@@ -0,0 +1,201 @@
+package ru.yandex.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.yandex.practicum.shareit.request.ItemRequest;
+import ru.yandex.practicum.shareit.request.ItemRequestService;
+import ru.yandex.practicum.shareit.user.User;
+import ru.yandex.practicum.shareit.user.UserService;
+import ru.yandex.practicum.shareit.validator.NotFoundException;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImporterTest {
+
+    private static final String VALID_ROW =
+            "{\"name\": \"Дрель\", \"description\": \"Простая дрель\", \"available\": true}";
+
+    @Mock
+    private ItemService itemService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ItemRequestService itemRequestService;
+
+    @Spy
+    private ItemMapper itemMapper = new ItemMapper(null, null);
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ItemImporter itemImporter;
+
+    @Test
+    void importItems_shouldCreateTheValidRowsOfAJsonArray() throws IOException {
+        Long userId = 1L;
+        User owner = initUser(userId);
+        String body = "[" + VALID_ROW + ", {\"name\": \"Д\", \"description\": \"Простая\", \"available\": true}, "
+                + VALID_ROW + "]";
+
+        when(userService.getUserById(userId)).thenReturn(owner);
+        when(itemService.createItems(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        List<ItemImportResultDto> results = itemImporter.importItems(userId, toStream(body));
+
+        assertThat(results).extracting(ItemImportResultDto::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(ItemImportResultDto::getId).containsExactly(1L, null, 2L);
+        assertThat(results.get(1).getError())
+                .isEqualTo("Name must contain at least 2 and no more than 100 characters");
+
+        ArgumentCaptor<List<Item>> items = itemsCaptor();
+        verify(itemService, times(1)).createItems(items.capture());
+        assertThat(items.getValue()).hasSize(2).allMatch(item -> item.getOwner() == owner);
+        verify(userService, times(1)).getUserById(userId);
+    }
+
+    @Test
+    void importItems_shouldLoadTheRequestsOfAChunkAtOnce() throws IOException {
+        Long userId = 1L;
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setId(10L);
+        String body = VALID_ROW.replace("}", ", \"requestId\": 10}") + "\n"
+                + VALID_ROW.replace("}", ", \"requestId\": 11}") + "\n"
+                + VALID_ROW.replace("}", ", \"requestId\": 10}") + "\n";
+
+        when(userService.getUserById(userId)).thenReturn(initUser(userId));
+        when(itemRequestService.getItemRequestsByIds(Set.of(10L, 11L))).thenReturn(Map.of(10L, itemRequest));
+        when(itemService.createItems(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        List<ItemImportResultDto> results = itemImporter.importItems(userId, toStream(body));
+
+        assertThat(results).extracting(ItemImportResultDto::getId).containsExactly(1L, null, 2L);
+        assertThat(results.get(1).getError()).isEqualTo("Item request with id 11 does not exist");
+
+        ArgumentCaptor<List<Item>> items = itemsCaptor();
+        verify(itemService, times(1)).createItems(items.capture());
+        assertThat(items.getValue()).allMatch(item -> item.getRequest() == itemRequest);
+        verify(itemRequestService, times(1)).getItemRequestsByIds(any());
+    }
+
+    @Test
+    void importItems_shouldSkipARowOfTheWrongType_andContinue() throws IOException {
+        Long userId = 1L;
+        String body = VALID_ROW + "\n{\"name\": \"Пила\", \"description\": \"Ручная\", \"available\": [1]}\n"
+                + VALID_ROW + "\n";
+
+        when(userService.getUserById(userId)).thenReturn(initUser(userId));
+        when(itemService.createItems(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        List<ItemImportResultDto> results = itemImporter.importItems(userId, toStream(body));
+
+        assertThat(results).extracting(ItemImportResultDto::getId).containsExactly(1L, null, 2L);
+        assertThat(results.get(1).getError()).startsWith("Invalid item");
+    }
+
+    @Test
+    void importItems_shouldStopAtMalformedJson() throws IOException {
+        Long userId = 1L;
+        String body = VALID_ROW + "\n{\"name\": \"Пила\", \n" + VALID_ROW + "\n";
+
+        when(userService.getUserById(userId)).thenReturn(initUser(userId));
+        when(itemService.createItems(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        List<ItemImportResultDto> results = itemImporter.importItems(userId, toStream(body));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getId()).isEqualTo(1L);
+        assertThat(results.get(1).getError()).startsWith("Malformed JSON");
+    }
+
+    @Test
+    void importItems_shouldSaveEveryThousandRowsInASeparateChunk() throws IOException {
+        Long userId = 1L;
+        String body = String.join("\n", Collections.nCopies(2500, VALID_ROW));
+
+        when(userService.getUserById(userId)).thenReturn(initUser(userId));
+        when(itemService.createItems(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        List<ItemImportResultDto> results = itemImporter.importItems(userId, toStream(body));
+
+        assertThat(results).hasSize(2500).allMatch(result -> result.getError() == null);
+
+        ArgumentCaptor<List<Item>> items = itemsCaptor();
+        verify(itemService, times(3)).createItems(items.capture());
+        assertThat(items.getAllValues().stream().map(List::size).collect(Collectors.toList()))
+                .containsExactly(1000, 1000, 500);
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void importItems_shouldThrowAnException_ifUserDoesNotExist() {
+        Long userId = 1L;
+
+        when(userService.getUserById(userId)).thenThrow(NotFoundException.class);
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> itemImporter.importItems(userId, toStream(VALID_ROW)));
+
+        verify(itemService, never()).createItems(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Item>> itemsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static List<Item> withIds(List<Item> items) {
+        List<Item> createdItems = new ArrayList<>();
+        long id = 1;
+        for (Item item : items) {
+            item.setId(id++);
+            createdItems.add(item);
+        }
+        return createdItems;
+    }
+
+    private static InputStream toStream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static User initUser(Long id) {
+        User user = new User();
+
+        user.setId(id);
+        user.setEmail("user@user.com");
+        user.setName("user");
+
+        return user;
+    }
+}
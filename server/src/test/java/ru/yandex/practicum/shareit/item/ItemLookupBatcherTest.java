@@ -0,0 +1,102 @@
+package ru.yandex.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.yandex.practicum.shareit.booking.Booking;
+import ru.yandex.practicum.shareit.booking.BookingService;
+import ru.yandex.practicum.shareit.booking.BookingStatus;
+import ru.yandex.practicum.shareit.request.ItemRequest;
+import ru.yandex.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemLookupBatcherTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private BookingService bookingService;
+
+    private ItemLookupBatcher itemLookupBatcher;
+
+    @BeforeEach
+    void setUp() {
+        itemLookupBatcher = new ItemLookupBatcher(itemRepository, commentRepository, bookingService,
+                100, Duration.ofMillis(2), Duration.ofSeconds(5), 10, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getItemsByRequestId_shouldReturnDetachedCopiesOfTheLoadedItems() {
+        Item loaded = initItem();
+
+        when(itemRepository.findByRequestId(eq(3L), any())).thenReturn(List.of(loaded));
+
+        List<Item> items = itemLookupBatcher.getItemsByRequestId(3L);
+
+        assertThat(items).hasSize(1);
+        assertThat(items.get(0)).isNotSameAs(loaded);
+        assertThat(items.get(0).getName()).isEqualTo(loaded.getName());
+        assertThat(items.get(0).getRequest()).isNotSameAs(loaded.getRequest());
+        assertThat(items.get(0).getRequest().getId()).isEqualTo(3L);
+        assertThat(items.get(0).getOwner()).isNotSameAs(loaded.getOwner());
+        assertThat(items.get(0).getOwner().getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void getLastBookingByItemId_shouldReturnADetachedCopyOfTheLoadedBooking() {
+        Item item = initItem();
+        User booker = new User();
+        booker.setId(5L);
+        booker.setName("booker");
+        Booking loaded = new Booking();
+        loaded.setId(4L);
+        loaded.setStart(LocalDateTime.of(2023, 5, 8, 12, 0));
+        loaded.setEnd(LocalDateTime.of(2023, 5, 9, 12, 0));
+        loaded.setStatus(BookingStatus.APPROVED);
+        loaded.setItem(item);
+        loaded.setBooker(booker);
+
+        when(bookingService.getLastBookingByItemId(1L)).thenReturn(loaded);
+
+        Booking booking = itemLookupBatcher.getLastBookingByItemId(1L);
+
+        assertThat(booking).isNotSameAs(loaded);
+        assertThat(booking.getStart()).isEqualTo(loaded.getStart());
+        assertThat(booking.getBooker()).isNotSameAs(booker);
+        assertThat(booking.getBooker().getId()).isEqualTo(5L);
+        assertThat(booking.getItem().getId()).isEqualTo(1L);
+    }
+
+    private static Item initItem() {
+        User owner = new User();
+        owner.setId(2L);
+        ItemRequest request = new ItemRequest();
+        request.setId(3L);
+        Item item = new Item();
+
+        item.setId(1L);
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequest(request);
+
+        return item;
+    }
+}
@@ -0,0 +1,106 @@
+package ru.yandex.practicum.shareit.item;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.shareit.metrics.StatementCounter;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ItemLookupConfig.class, StatementCounter.class, ItemLookupConnectionsTest.MeterRegistryConfig.class})
+@TestPropertySource(properties = {
+        "shareit.datasource.request-connections=2",
+        "shareit.item-lookup.pool-size=2",
+        "shareit.item-lookup.queue-capacity=10",
+        "shareit.item-lookup.timeout=5s",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ItemLookupConnectionsTest {
+
+    private static final int REQUESTS = 2;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemLookupExecutor itemLookupExecutor;
+
+    @Test
+    void dataSource_shouldHaveAConnectionForEveryRequestAndLookupThread() {
+        assertThat(((HikariDataSource) dataSource).getMaximumPoolSize()).isEqualTo(4);
+    }
+
+    @Test
+    void runAll_shouldFinishTheLookups_whileEveryRequestHoldsItsConnection() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        Runnable lookup = () -> transaction.execute(status -> itemRepository.count());
+        CyclicBarrier connectionsTaken = new CyclicBarrier(REQUESTS);
+
+        ExecutorService requests = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(requests.submit(() -> transaction.execute(status -> {
+                    itemRepository.count();
+                    await(connectionsTaken);
+                    itemLookupExecutor.runAll("item", lookup, lookup, lookup);
+                    return null;
+                })));
+            }
+
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TestConfiguration
+    static class MeterRegistryConfig {
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
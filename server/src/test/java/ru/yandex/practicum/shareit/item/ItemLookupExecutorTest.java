@@ -0,0 +1,100 @@
+package ru.yandex.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.shareit.metrics.StatementCounter;
+import ru.yandex.practicum.shareit.validator.NotFoundException;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ItemLookupExecutorTest {
+
+    private ExecutorService threadPool;
+    private MeterRegistry meterRegistry;
+    private StatementCounter statementCounter;
+    private ItemLookupExecutor itemLookupExecutor;
+
+    @BeforeEach
+    void setUp() {
+        threadPool = Executors.newFixedThreadPool(2);
+        meterRegistry = new SimpleMeterRegistry();
+        statementCounter = new StatementCounter();
+        itemLookupExecutor = new ItemLookupExecutor(threadPool, statementCounter, Duration.ofMillis(500),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemLookupExecutor.shutdown();
+    }
+
+    @Test
+    void runAll_shouldRunTheLookupsAtTheSameTime() {
+        CountDownLatch started = new CountDownLatch(3);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        Runnable lookup = () -> {
+            threads.add(Thread.currentThread().getName());
+            started.countDown();
+            await(started);
+        };
+
+        itemLookupExecutor.runAll("items", lookup, lookup, lookup);
+
+        assertThat(started.getCount()).isZero();
+        assertThat(threads).hasSize(3).contains(Thread.currentThread().getName());
+        assertThat(meterRegistry.get("shareit.item.enrichment").tag("stage", "items").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void runAll_shouldRethrowTheExceptionOfALookup() {
+        Runnable failingLookup = () -> {
+            throw new NotFoundException("Item with id 1 does not exist");
+        };
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> itemLookupExecutor.runAll("item", () -> { }, failingLookup));
+    }
+
+    @Test
+    void runAll_shouldThrowAnException_ifTheLookupsTakeLongerThanTheTimeout() {
+        CountDownLatch never = new CountDownLatch(1);
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> itemLookupExecutor.runAll("item", () -> { }, () -> await(never)));
+
+        assertThat(meterRegistry.get("shareit.item.enrichment").tag("outcome", "timeout").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void runAll_shouldCountTheStatementsOfThePoolLookups_forTheCallingThread() throws Exception {
+        Runnable lookup = () -> statementCounter.inspect("select 1");
+
+        statementCounter.reset();
+        itemLookupExecutor.runAll("items", lookup, lookup, lookup);
+
+        assertThat(statementCounter.getCount()).isEqualTo(3);
+        assertThat(threadPool.submit(statementCounter::getCount).get()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
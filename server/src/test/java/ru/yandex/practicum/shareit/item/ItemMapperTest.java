@@ -55,6 +55,7 @@ class ItemMapperTest {
         List<CommentForResponseDto> commentDtos = List.of(commentDto1, commentDto2);
 
         item.setComments(comments);
+        item.setCommentCount(12);
 
         when(commentMapper.toDtos(comments)).thenReturn(commentDtos);
 
@@ -67,6 +68,7 @@ class ItemMapperTest {
         assertThat(itemDto.getLastBooking()).isEqualTo(bookingDto1);
         assertThat(itemDto.getNextBooking()).isEqualTo(bookingDto2);
         assertThat(itemDto.getComments()).isEqualTo(commentDtos);
+        assertThat(itemDto.getCommentCount()).isEqualTo(12);
 
         item.setRequest(new ItemRequest());
         item.getRequest().setId(2L);
@@ -113,6 +115,7 @@ class ItemMapperTest {
         itemDto.setDescription("Простая дрель");
         itemDto.setAvailable(true);
         itemDto.setComments(List.of());
+        itemDto.setCommentCount(0L);
 
         return itemDto;
     }
@@ -1,5 +1,7 @@
 package ru.yandex.practicum.shareit.item;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,11 +10,12 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import ru.yandex.practicum.shareit.user.User;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class ItemRepositoryTest {
 
     @Autowired
@@ -112,6 +115,27 @@ class ItemRepositoryTest {
         assertThat(items).isEmpty();
     }
 
+    @Test
+    void saveAll_shouldInsertItemsInBatches() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Item item = initItem();
+            item.setOwner(user);
+            items.add(item);
+        }
+        entityManager.flush();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        itemRepository.saveAll(items);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+    }
+
     private Item initItem() {
         Item item = new Item();
 
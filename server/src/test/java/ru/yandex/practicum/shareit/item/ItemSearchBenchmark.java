@@ -0,0 +1,115 @@
+package ru.yandex.practicum.shareit.item;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.yandex.practicum.shareit.ShareItServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JPQL LIKE query with the trigram index on H2
+ * Run with the main method, the number of items can be changed with -p items=1000000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class ItemSearchBenchmark {
+
+    private static final String[] WORDS = {
+        "дрель", "перфоратор", "аккумулятор", "шуруповёрт", "пила", "лобзик", "стремянка", "палатка",
+        "велосипед", "самокат", "фотоаппарат", "объектив", "проектор", "колонка", "кофемашина", "миксер",
+        "простая", "мощная", "ручная", "складная", "детская", "туристическая", "новая", "старая"
+    };
+
+    @Param({"100000"})
+    private int items;
+
+    @Param({"дрел", "ккумулято", "ручная пила", "xyz"})
+    private String text;
+
+    private final Pageable page = PageRequest.of(0, 20);
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private ItemSearchIndex itemSearchIndex;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemSearchBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run();
+
+        itemRepository = context.getBean(ItemRepository.class);
+        itemSearchIndex = context.getBean(ItemSearchIndex.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into users (email, name) values ('owner@user.com', 'owner')");
+        Long ownerId = jdbcTemplate.queryForObject("select id from users", Long.class);
+
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + Integer.toString(i, 36);
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)];
+            rows.add(new Object[]{name, description, random.nextBoolean(), ownerId});
+
+            if (rows.size() == 10_000 || i == items - 1) {
+                jdbcTemplate.batchUpdate(
+                        "insert into items (name, description, is_available, owner_id) values (?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+
+        itemSearchIndex.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> jpqlQuery() {
+        return itemRepository.searchItemsByText(text, page);
+    }
+
+    @Benchmark
+    public List<Long> trigramIndex() {
+        return itemSearchIndex.search(text, page).orElseThrow();
+    }
+}
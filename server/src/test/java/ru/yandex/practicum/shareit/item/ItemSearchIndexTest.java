@@ -0,0 +1,266 @@
+package ru.yandex.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.shareit.user.User;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    private Pageable page;
+    private Item item1;
+    private Item item2;
+    private Item item3;
+
+    @BeforeEach
+    void setUp() {
+        page = PageRequest.of(0, 20);
+        item1 = initItem(1L, 1L);
+        item2 = initItem(2L, 1L);
+        item3 = initItem(3L, 2L);
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void search_shouldReturnEmptyListOfItemIds() {
+        indexItems();
+        assertThat(search("аккумулятор", page)).isEmpty();
+    }
+
+    @Test
+    void search_shouldReturnItemIds_ifTheSearchTextIsPresentInTheNameAndDescription() {
+        indexItems();
+        assertThat(search("дрель", page)).isEqualTo(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void search_shouldReturnItemIds_ifTheSearchTextIsPresentOnlyInTheName() {
+        item1.setName("Аккумулятор");
+        item1.setDescription("Аккумулятор");
+        item2.setDescription("Простая");
+
+        indexItems();
+
+        assertThat(search("дрель", page)).isEqualTo(List.of(2L, 3L));
+    }
+
+    @Test
+    void search_shouldReturnItemIds_ifTheSearchTextIsPresentOnlyInTheDescription() {
+        item2.setName("Аккумулятор");
+        item2.setDescription("Аккумулятор");
+
+        indexItems();
+
+        assertThat(search("прост", page)).isEqualTo(List.of(1L, 3L));
+    }
+
+    @Test
+    void search_shouldReturnItemIds_ifTheSearchTextIsAPartOfSeveralWords() {
+        item2.setDescription("Простая, но мощная дрель");
+
+        indexItems();
+
+        assertThat(search("ая дре", page)).isEqualTo(List.of(1L, 2L, 3L));
+        assertThat(search("ЩНАЯ ДРЕЛЬ", page)).isEqualTo(List.of(2L));
+        assertThat(search("ая, но", page)).isEqualTo(List.of(2L));
+        assertThat(search("ая но", page)).isEmpty();
+    }
+
+    @Test
+    void search_shouldReturnItemIds_ifTheSearchTextIsShorterThanATrigram() {
+        item2.setName("Аккумулятор");
+        item2.setDescription("Аккумулятор");
+
+        indexItems();
+
+        assertThat(search("ЛЬ", page)).isEqualTo(List.of(1L, 3L));
+        assertThat(search("р", PageRequest.of(1, 2))).isEqualTo(List.of(3L));
+        assertThat(search("ы", page)).isEmpty();
+    }
+
+    @Test
+    void search_shouldReturnEmptyListOfItemIds_ifItemsAreNotAvailable() {
+        item1.setAvailable(false);
+        item2.setAvailable(false);
+        item3.setAvailable(false);
+
+        indexItems();
+
+        assertThat(search("дрель", page)).isEmpty();
+    }
+
+    @Test
+    void search_shouldReturnItemIdsPageByPage() {
+        indexItems();
+
+        assertThat(search("дрель", PageRequest.of(0, 2))).isEqualTo(List.of(1L, 2L));
+        assertThat(search("дрель", PageRequest.of(1, 2))).isEqualTo(List.of(3L));
+    }
+
+    @Test
+    void index_shouldReplaceThePreviousVersionOfTheItem() {
+        indexItems();
+
+        item2.setName("Аккумулятор");
+        item2.setDescription("Аккумулятор");
+        itemSearchIndex.index(item2);
+
+        assertThat(search("дрель", page)).isEqualTo(List.of(1L, 3L));
+        assertThat(search("аккум", page)).isEqualTo(List.of(2L));
+    }
+
+    @Test
+    void index_shouldApplyTheChange_onlyAfterTheTransactionCommits() {
+        indexItems();
+        item2.setAvailable(false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.index(item2);
+
+            assertThat(search("дрель", page)).isEqualTo(List.of(1L, 2L, 3L));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(search("дрель", page)).isEqualTo(List.of(1L, 3L));
+    }
+
+    @Test
+    void matches_shouldTreatPercentAndUnderscoreAsPlainChars() {
+        item1.setName("Дрель 100%");
+
+        assertThat(ItemSearchIndex.matches(item1, "100%")).isTrue();
+        assertThat(ItemSearchIndex.matches(item1, "дре_ь")).isFalse();
+        assertThat(ItemSearchIndex.matches(item1, "%")).isTrue();
+    }
+
+    @Test
+    void removeByOwnerId_shouldRemoveAllItemsOfTheOwner() {
+        indexItems();
+
+        itemSearchIndex.removeByOwnerId(1L);
+
+        assertThat(search("дрель", page)).isEqualTo(List.of(3L));
+    }
+
+    @Test
+    void removeByOwnerId_shouldKeepTheItems_untilTheTransactionCommits() {
+        indexItems();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.removeByOwnerId(1L);
+
+            assertThat(search("дрель", page)).isEqualTo(List.of(1L, 2L, 3L));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(search("дрель", page)).isEqualTo(List.of(3L));
+    }
+
+    @Test
+    void search_shouldReturnNothing_untilTheIndexIsLoaded() {
+        ItemSearchIndex notLoaded = new ItemSearchIndex(itemRepository);
+        notLoaded.index(item1);
+
+        assertThat(notLoaded.search("дрель", page)).isEmpty();
+    }
+
+    @Test
+    void rebuild_shouldLoadAllItemsFromTheRepository() {
+        Pageable rebuildPage = PageRequest.of(0, 1000, Sort.by("id").ascending());
+        ItemSearchIndex rebuilt = new ItemSearchIndex(itemRepository);
+        clearInvocations(itemRepository);
+
+        when(itemRepository.findByIdGreaterThan(0L, rebuildPage)).thenReturn(List.of(item1, item3));
+
+        rebuilt.index(item2);
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.search("дрель", page)).hasValue(List.of(1L, 3L));
+
+        verify(itemRepository, times(1)).findByIdGreaterThan(0L, rebuildPage);
+    }
+
+    @Test
+    void rebuild_shouldCreateEmptyIndex_ifThereAreNoItems() {
+        Pageable rebuildPage = PageRequest.of(0, 1000, Sort.by("id").ascending());
+        ItemSearchIndex rebuilt = new ItemSearchIndex(itemRepository);
+
+        when(itemRepository.findByIdGreaterThan(0L, rebuildPage)).thenReturn(Collections.emptyList());
+
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.search("дрель", page)).hasValue(Collections.emptyList());
+    }
+
+    @Test
+    void rebuild_shouldServeTheCurrentIndex_andKeepTheChangesMadeWhileTheItemsAreLoaded() {
+        Pageable rebuildPage = PageRequest.of(0, 1000, Sort.by("id").ascending());
+        itemSearchIndex.index(item1);
+
+        when(itemRepository.findByIdGreaterThan(0L, rebuildPage)).thenAnswer(invocation -> {
+            assertThat(search("дрель", page)).isEqualTo(List.of(1L));
+            itemSearchIndex.index(item2);
+            itemSearchIndex.removeByOwnerId(2L);
+            return List.of(item1, item3);
+        });
+
+        itemSearchIndex.rebuild();
+
+        assertThat(search("дрель", page)).isEqualTo(List.of(1L, 2L));
+    }
+
+    private List<Long> search(String text, Pageable page) {
+        return itemSearchIndex.search(text, page).orElseThrow();
+    }
+
+    private void indexItems() {
+        itemSearchIndex.index(item1);
+        itemSearchIndex.index(item2);
+        itemSearchIndex.index(item3);
+    }
+
+    private Item initItem(Long id, Long ownerId) {
+        Item item = new Item();
+
+        item.setId(id);
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(new User());
+        item.getOwner().setId(ownerId);
+
+        return item;
+    }
+}
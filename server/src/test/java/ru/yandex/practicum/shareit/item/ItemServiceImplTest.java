@@ -1,24 +1,31 @@
 package ru.yandex.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import ru.yandex.practicum.shareit.booking.Booking;
-import ru.yandex.practicum.shareit.booking.BookingRepository;
 import ru.yandex.practicum.shareit.booking.BookingService;
 import ru.yandex.practicum.shareit.booking.BookingStatus;
+import ru.yandex.practicum.shareit.booking.CompletedRentals;
+import ru.yandex.practicum.shareit.metrics.StatementCounter;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 import ru.yandex.practicum.shareit.request.ItemRequest;
+import ru.yandex.practicum.shareit.request.ItemRequestMatcher;
 import ru.yandex.practicum.shareit.user.User;
-import ru.yandex.practicum.shareit.user.UserRepository;
+import ru.yandex.practicum.shareit.user.UserService;
 import ru.yandex.practicum.shareit.validator.NotFoundException;
 import ru.yandex.practicum.shareit.validator.ValidationException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -27,7 +34,8 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
-import static org.mockito.Mockito.mockStatic;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -42,10 +50,10 @@ class ItemServiceImplTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserService userService;
 
     @Mock
-    private BookingRepository bookingRepository;
+    private CompletedRentals completedRentals;
 
     @Mock
     private CommentRepository commentRepository;
@@ -53,6 +61,23 @@ class ItemServiceImplTest {
     @Mock
     private BookingService bookingService;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private LiveItemIds liveItemIds;
+
+    @Spy
+    private ItemLookupExecutor itemLookupExecutor =
+            new ItemLookupExecutor(Runnable::run, new StatementCounter(), Duration.ofSeconds(1),
+                    new SimpleMeterRegistry());
+
+    @Mock
+    private ItemRequestMatcher itemRequestMatcher;
+
+    @Mock
+    private ItemLookupBatcher itemLookupBatcher;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -62,12 +87,12 @@ class ItemServiceImplTest {
         Integer size = 20;
         Pageable page = PageRequest.of(0, size, Sort.by("id").ascending());
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userService.existsById(userId)).thenReturn(true);
         when(itemRepository.findByOwnerId(userId, page)).thenReturn(Collections.emptyList());
 
         assertThat(itemService.getItemsByUserId(userId, page)).isEmpty();
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
         verify(itemRepository, times(1)).findByOwnerId(userId, page);
     }
 
@@ -82,12 +107,12 @@ class ItemServiceImplTest {
 
         List<Item> expected = List.of(item1, item2);
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userService.existsById(userId)).thenReturn(true);
         when(itemRepository.findByOwnerId(userId, page)).thenReturn(expected);
 
         assertThat(itemService.getItemsByUserId(userId, page)).isEqualTo(expected);
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
         verify(itemRepository, times(1)).findByOwnerId(userId, page);
     }
 
@@ -97,12 +122,12 @@ class ItemServiceImplTest {
         Integer size = 20;
         Pageable page = PageRequest.of(0, size, Sort.by("id").ascending());
 
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userService.existsById(userId)).thenReturn(false);
 
         assertThatExceptionOfType(NotFoundException.class)
                 .isThrownBy(() -> itemService.getItemsByUserId(userId, page));
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
         verify(itemRepository, never()).findByOwnerId(userId, page);
     }
 
@@ -131,6 +156,18 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1)).findById(itemId);
     }
 
+    @Test
+    void getItemById_shouldThrowAnException_withoutAQuery_ifItemIdIsAbsent() {
+        Long itemId = 1L;
+
+        when(liveItemIds.isAbsent(itemId)).thenReturn(true);
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> itemService.getItemById(itemId));
+
+        verify(itemRepository, never()).findById(itemId);
+    }
+
     @Test
     void createItem_shouldCreateAItem() {
         Long userId = 1L;
@@ -143,6 +180,24 @@ class ItemServiceImplTest {
         assertThat(itemService.createItem(item)).isEqualTo(item);
 
         verify(itemRepository, times(1)).save(item);
+        verify(itemSearchIndex, times(1)).index(item);
+        verify(itemRequestMatcher, times(1)).matchItems(List.of(item));
+    }
+
+    @Test
+    void createItems_shouldSaveAllItemsAtOnce() {
+        Item item1 = initItem();
+        Item item2 = initItem();
+        List<Item> items = List.of(item1, item2);
+
+        when(itemRepository.saveAll(items)).thenReturn(items);
+
+        assertThat(itemService.createItems(items)).isEqualTo(items);
+
+        verify(itemRepository, times(1)).saveAll(items);
+        verify(itemRepository, never()).save(any());
+        verify(itemSearchIndex, times(2)).index(any(Item.class));
+        verify(itemRequestMatcher, times(1)).matchItems(items);
     }
 
     @Test
@@ -161,6 +216,7 @@ class ItemServiceImplTest {
 
         verify(itemRepository, times(1)).existsByIdAndOwnerId(itemId, userId);
         verify(itemRepository, times(1)).save(item);
+        verify(itemSearchIndex, times(1)).index(item);
     }
 
     @Test
@@ -179,6 +235,7 @@ class ItemServiceImplTest {
 
         verify(itemRepository, times(1)).existsByIdAndOwnerId(itemId, userId);
         verify(itemRepository, never()).save(item);
+        verify(itemSearchIndex, never()).index(item);
     }
 
     @Test
@@ -187,11 +244,12 @@ class ItemServiceImplTest {
         Integer size = 20;
         Pageable page = PageRequest.of(0, size);
 
-        when(itemRepository.searchItemsByText(text, page)).thenReturn(Collections.emptyList());
+        when(itemSearchIndex.search(text, page)).thenReturn(Optional.of(Collections.emptyList()));
 
         assertThat(itemService.searchItems(text, page)).isEmpty();
 
-        verify(itemRepository, times(1)).searchItemsByText(text, page);
+        verify(itemSearchIndex, times(1)).search(text, page);
+        verify(itemRepository, never()).findByIdIn(Collections.emptyList(), Sort.by("id").ascending());
     }
 
     @Test
@@ -199,68 +257,71 @@ class ItemServiceImplTest {
         String text = "дрель";
         Integer size = 20;
         Pageable page = PageRequest.of(0, size);
+        Sort sort = Sort.by("id").ascending();
 
         Item item1 = initItem();
         Item item2 = initItem();
+        item1.setId(1L);
+        item2.setId(2L);
 
+        List<Long> itemIds = List.of(1L, 2L);
         List<Item> expected = List.of(item1, item2);
 
-        when(itemRepository.searchItemsByText(text, page)).thenReturn(expected);
+        when(itemSearchIndex.search(text, page)).thenReturn(Optional.of(itemIds));
+        when(itemRepository.findByIdIn(itemIds, sort)).thenReturn(expected);
 
         assertThat(itemService.searchItems(text, page)).isEqualTo(expected);
 
-        verify(itemRepository, times(1)).searchItemsByText(text, page);
+        verify(itemSearchIndex, times(1)).search(text, page);
+        verify(itemRepository, times(1)).findByIdIn(itemIds, sort);
     }
 
     @Test
-    void createComment_shouldCreateAComment() {
-        Long userId = 1L;
-        Long itemId = 2L;
-        BookingStatus bookingStatus = BookingStatus.APPROVED;
-
-        Comment comment = initComment();
-        comment.getItem().setId(itemId);
-        comment.getAuthor().setId(userId);
+    void searchItems_shouldLeaveOutItems_thatNoLongerMatchTheText() {
+        String text = "дрель";
+        Pageable page = PageRequest.of(0, 20);
+        Sort sort = Sort.by("id").ascending();
 
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(itemRepository.existsById(itemId)).thenReturn(true);
+        Item item1 = initItem();
+        Item item2 = initItem();
+        Item item3 = initItem();
+        item1.setId(1L);
+        item2.setId(2L);
+        item2.setAvailable(false);
+        item3.setId(3L);
+        item3.setName("Аккумулятор");
+        item3.setDescription("Аккумулятор");
 
-        try (MockedStatic<LocalDateTime> mockDateTime = mockStatic(LocalDateTime.class)) {
-            mockDateTime.when(LocalDateTime::now).thenReturn(currentDateTime);
-            when(bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(
-                    itemId, userId, bookingStatus, currentDateTime)).thenReturn(true);
-            when(commentRepository.save(comment)).thenReturn(comment);
+        List<Long> itemIds = List.of(1L, 2L, 3L);
 
-            assertThat(itemService.createComment(comment)).isEqualTo(comment);
-        }
+        when(itemSearchIndex.search(text, page)).thenReturn(Optional.of(itemIds));
+        when(itemRepository.findByIdIn(itemIds, sort)).thenReturn(List.of(item1, item2, item3));
 
-        verify(userRepository, times(1)).existsById(userId);
-        verify(itemRepository, times(1)).existsById(itemId);
-        verify(bookingRepository, times(1)).existsByItemIdAndBookerIdAndStatusAndEndBefore(
-                itemId, userId, bookingStatus, currentDateTime);
-        verify(commentRepository, times(1)).save(comment);
+        assertThat(itemService.searchItems(text, page)).containsExactly(item1);
     }
 
     @Test
-    void createComment_shouldCreateAComment_ifUserDoesNotExist() {
-        Long userId = 1L;
-        Long itemId = 2L;
+    void searchItems_shouldSearchTheRepository_untilTheIndexIsLoaded() {
+        String text = "дрель";
+        Pageable page = PageRequest.of(0, 20);
 
-        Comment comment = initComment();
-        comment.getItem().setId(itemId);
-        comment.getAuthor().setId(userId);
+        Item item1 = initItem();
+        Item item2 = initItem();
+        item1.setId(1L);
+        item2.setId(2L);
+        item2.setName("Аккумулятор");
+        item2.setDescription("Аккумулятор");
 
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(itemSearchIndex.search(text, page)).thenReturn(Optional.empty());
+        when(itemRepository.searchItemsByText(text, page)).thenReturn(List.of(item1, item2));
 
-        assertThatExceptionOfType(NotFoundException.class)
-                .isThrownBy(() -> itemService.createComment(comment));
+        assertThat(itemService.searchItems(text, page)).containsExactly(item1);
 
-        verify(userRepository, times(1)).existsById(userId);
-        verify(commentRepository, never()).save(comment);
+        verify(itemRepository, never()).findByIdIn(anyList(), any(Sort.class));
     }
 
     @Test
-    void createComment_shouldCreateAComment_ifItemDoesNotExist() {
+    void createComment_shouldCreateAComment() {
         Long userId = 1L;
         Long itemId = 2L;
 
@@ -268,44 +329,36 @@ class ItemServiceImplTest {
         comment.getItem().setId(itemId);
         comment.getAuthor().setId(userId);
 
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(itemRepository.existsById(itemId)).thenReturn(false);
+        when(completedRentals.isCompleted(userId, itemId)).thenReturn(true);
+        when(commentRepository.save(comment)).thenReturn(comment);
 
-        assertThatExceptionOfType(NotFoundException.class)
-                .isThrownBy(() -> itemService.createComment(comment));
+        assertThat(itemService.createComment(comment)).isEqualTo(comment);
+        assertThat(comment.getCreated()).isNotNull();
 
-        verify(userRepository, times(1)).existsById(userId);
-        verify(itemRepository, times(1)).existsById(itemId);
-        verify(commentRepository, never()).save(comment);
+        verify(completedRentals, times(1)).isCompleted(userId, itemId);
+        verify(userService, never()).existsById(any());
+        verify(itemRepository, never()).existsById(any());
+        verify(commentRepository, times(1)).save(comment);
+        verify(itemRepository, times(1)).incrementCommentCount(itemId);
     }
 
     @Test
-    void createComment_shouldCreateAComment_ifTheItemBookingIsNotValid() {
+    void createComment_shouldThrowAnException_ifTheItemBookingIsNotValid() {
         Long userId = 1L;
         Long itemId = 2L;
-        BookingStatus bookingStatus = BookingStatus.APPROVED;
 
         Comment comment = initComment();
         comment.getItem().setId(itemId);
         comment.getAuthor().setId(userId);
 
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(itemRepository.existsById(itemId)).thenReturn(true);
-
-        try (MockedStatic<LocalDateTime> mockDateTime = mockStatic(LocalDateTime.class)) {
-            mockDateTime.when(LocalDateTime::now).thenReturn(currentDateTime);
-            when(bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(
-                    itemId, userId, bookingStatus, currentDateTime)).thenReturn(false);
+        when(completedRentals.isCompleted(userId, itemId)).thenReturn(false);
 
-            assertThatExceptionOfType(ValidationException.class)
-                    .isThrownBy(() -> itemService.createComment(comment));
-        }
+        assertThatExceptionOfType(ValidationException.class)
+                .isThrownBy(() -> itemService.createComment(comment));
 
-        verify(userRepository, times(1)).existsById(userId);
-        verify(itemRepository, times(1)).existsById(itemId);
-        verify(bookingRepository, times(1)).existsByItemIdAndBookerIdAndStatusAndEndBefore(
-                itemId, userId, bookingStatus, currentDateTime);
+        verify(completedRentals, times(1)).isCompleted(userId, itemId);
         verify(commentRepository, never()).save(comment);
+        verify(itemRepository, never()).incrementCommentCount(itemId);
     }
 
     @Test
@@ -313,13 +366,12 @@ class ItemServiceImplTest {
         Long itemId1 = 1L;
         Long itemId2 = 2L;
         List<Long> itemIds = List.of(itemId1, itemId2);
-        Sort sort = Sort.by("created").descending();
 
-        when(commentRepository.findByItemIdIn(itemIds, sort)).thenReturn(Collections.emptyList());
+        when(itemLookupBatcher.getCommentsByItemIds(itemIds)).thenReturn(Map.of());
 
         assertThat(itemService.getCommentsByItemIds(itemIds)).isEqualTo(Map.of());
 
-        verify(commentRepository, times(1)).findByItemIdIn(itemIds, sort);
+        verify(itemLookupBatcher, times(1)).getCommentsByItemIds(itemIds);
     }
 
     @Test
@@ -327,42 +379,74 @@ class ItemServiceImplTest {
         Long itemId1 = 1L;
         Long itemId2 = 2L;
         List<Long> itemIds = List.of(itemId1, itemId2);
-        Sort sort = Sort.by("created").descending();
 
         Comment comment1 = initComment();
         Comment comment2 = initComment();
         Comment comment3 = initComment();
 
-        comment1.getItem().setId(itemId1);
-        comment2.getItem().setId(itemId1);
-        comment3.getItem().setId(itemId2);
-
-        List<Comment> comments = List.of(comment1, comment2, comment3);
         Map<Long, List<Comment>> expected = Map.of(itemId1, List.of(comment1, comment2), itemId2, List.of(comment3));
 
-        when(commentRepository.findByItemIdIn(itemIds, sort)).thenReturn(comments);
+        when(itemLookupBatcher.getCommentsByItemIds(itemIds)).thenReturn(expected);
 
         assertThat(itemService.getCommentsByItemIds(itemIds)).isEqualTo(expected);
 
-        verify(commentRepository, times(1)).findByItemIdIn(itemIds, sort);
+        verify(itemLookupBatcher, times(1)).getCommentsByItemIds(itemIds);
+    }
+
+    @Test
+    void getCommentsPageByItemId_shouldReturnTheFirstPage_withoutACursor() {
+        Long itemId = 1L;
+        Pageable page = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "created", "id"));
+        Slice<Comment> expected = new SliceImpl<>(List.of(initComment()), page, true);
+
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(commentRepository.findByItemId(itemId, page)).thenReturn(expected);
+
+        assertThat(itemService.getCommentsByItemId(itemId, null, page)).isEqualTo(expected);
+
+        verify(commentRepository, times(1)).findByItemId(itemId, page);
+    }
+
+    @Test
+    void getCommentsPageByItemId_shouldSeekPastTheCursor_fromTheFirstPage() {
+        Long itemId = 1L;
+        Sort sort = Sort.by(Sort.Direction.DESC, "created", "id");
+        KeysetCursor cursor = KeysetCursor.of(currentDateTime, 5L);
+        Slice<Comment> expected = new SliceImpl<>(List.of(initComment()));
+
+        when(itemRepository.existsById(itemId)).thenReturn(true);
+        when(commentRepository.findByItemIdBefore(itemId, currentDateTime, 5L, PageRequest.of(0, 2, sort)))
+                .thenReturn(expected);
+
+        assertThat(itemService.getCommentsByItemId(itemId, cursor, PageRequest.of(3, 2, sort))).isEqualTo(expected);
+    }
+
+    @Test
+    void getCommentsPageByItemId_shouldThrowAnException_ifItemDoesNotExist() {
+        Long itemId = 1L;
+
+        when(liveItemIds.isAbsent(itemId)).thenReturn(true);
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> itemService.getCommentsByItemId(itemId, null, PageRequest.of(0, 2)));
+
+        verify(commentRepository, never()).findByItemId(any(), any());
     }
 
     @Test
     void getCommentsByItemId_shouldReturnEmptyListOfComments() {
         Long itemId = 1L;
-        Sort sort = Sort.by("created").descending();
 
-        when(commentRepository.findByItemId(itemId, sort)).thenReturn(Collections.emptyList());
+        when(itemLookupBatcher.getCommentsByItemId(itemId)).thenReturn(Collections.emptyList());
 
         assertThat(itemService.getCommentsByItemId(itemId)).isEmpty();
 
-        verify(commentRepository, times(1)).findByItemId(itemId, sort);
+        verify(itemLookupBatcher, times(1)).getCommentsByItemId(itemId);
     }
 
     @Test
     void getCommentsByItemId_shouldReturnCommentsByItemId() {
         Long itemId = 1L;
-        Sort sort = Sort.by("created").descending();
 
         Comment comment1 = initComment();
         Comment comment2 = initComment();
@@ -372,11 +456,11 @@ class ItemServiceImplTest {
 
         List<Comment> expected = List.of(comment1, comment2);
 
-        when(commentRepository.findByItemId(itemId, sort)).thenReturn(expected);
+        when(itemLookupBatcher.getCommentsByItemId(itemId)).thenReturn(expected);
 
         assertThat(itemService.getCommentsByItemId(itemId)).isEqualTo(expected);
 
-        verify(commentRepository, times(1)).findByItemId(itemId, sort);
+        verify(itemLookupBatcher, times(1)).getCommentsByItemId(itemId);
     }
 
     @Test
@@ -421,19 +505,17 @@ class ItemServiceImplTest {
     @Test
     void getItemsByRequestId_shouldReturnEmptyListOfItems() {
         Long requestId = 1L;
-        Sort sort = Sort.by("id").ascending();
 
-        when(itemRepository.findByRequestId(requestId, sort)).thenReturn(Collections.emptyList());
+        when(itemLookupBatcher.getItemsByRequestId(requestId)).thenReturn(Collections.emptyList());
 
         assertThat(itemService.getItemsByRequestId(requestId)).isEmpty();
 
-        verify(itemRepository, times(1)).findByRequestId(requestId, sort);
+        verify(itemLookupBatcher, times(1)).getItemsByRequestId(requestId);
     }
 
     @Test
     void getItemsByRequestId_shouldReturnItemsByRequestId() {
         Long requestId = 1L;
-        Sort sort = Sort.by("id").ascending();
 
         Item item1 = initItem();
         Item item2 = initItem();
@@ -443,18 +525,17 @@ class ItemServiceImplTest {
 
         List<Item> expected = List.of(item1, item2);
 
-        when(itemRepository.findByRequestId(requestId, sort)).thenReturn(expected);
+        when(itemLookupBatcher.getItemsByRequestId(requestId)).thenReturn(expected);
 
         assertThat(itemService.getItemsByRequestId(requestId)).isEqualTo(expected);
 
-        verify(itemRepository, times(1)).findByRequestId(requestId, sort);
+        verify(itemLookupBatcher, times(1)).getItemsByRequestId(requestId);
     }
 
     @Test
     void setBookingsAndCommentsToItems_shouldReturnListOfItem() {
         Long itemId1 = 1L;
         Long itemId2 = 2L;
-        Sort sort = Sort.by("created").descending();
 
         Item item1 = initItem();
         Item item2 = initItem();
@@ -476,36 +557,31 @@ class ItemServiceImplTest {
         comment3.getItem().setId(itemId2);
 
         List<Long> itemIds = List.of(itemId1, itemId2);
-        List<Booking> itemBookings1 = List.of(booking1, booking2);
-        List<Booking> itemBookings2 = List.of(booking3);
         List<Comment> itemComments1 = List.of(comment1, comment2);
         List<Comment> itemComments2 = List.of(comment3);
 
-        Map<Long, List<Booking>> bookings = Map.of(itemId1, itemBookings1, itemId2, itemBookings2);
-        List<Comment> comments = List.of(comment1, comment2, comment3);
-
-        when(bookingService.getBookingsByItemIds(itemIds)).thenReturn(bookings);
-        when(commentRepository.findByItemIdIn(itemIds, sort)).thenReturn(comments);
-
-        itemService.getCommentsByItemIds(itemIds);
-
-        when(bookingService.getLastBooking(itemBookings1)).thenReturn(booking1);
-        when(bookingService.getNextBooking(itemBookings1)).thenReturn(booking2);
-        when(bookingService.getLastBooking(itemBookings2)).thenReturn(booking3);
+        when(bookingService.getLastBookingsByItemIds(itemIds)).thenReturn(Map.of(itemId1, booking1, itemId2, booking3));
+        when(bookingService.getNextBookingsByItemIds(itemIds)).thenReturn(Map.of(itemId1, booking2));
+        when(itemLookupBatcher.getCommentsByItemIds(itemIds)).thenReturn(Map.of(itemId1, itemComments1,
+                itemId2, itemComments2));
 
         itemService.setBookingsAndCommentsToItems(items);
 
         assertThat(items.get(0).getLastBooking()).isEqualTo(booking1);
         assertThat(items.get(0).getNextBooking()).isEqualTo(booking2);
         assertThat(items.get(1).getLastBooking()).isEqualTo(booking3);
+        assertThat(items.get(1).getNextBooking()).isNull();
         assertThat(items.get(0).getComments()).isEqualTo(itemComments1);
         assertThat(items.get(1).getComments()).isEqualTo(itemComments2);
+
+        verify(bookingService, times(1)).getLastBookingsByItemIds(itemIds);
+        verify(bookingService, times(1)).getNextBookingsByItemIds(itemIds);
+        verify(itemLookupBatcher, times(1)).getCommentsByItemIds(itemIds);
     }
 
     @Test
     void setBookingsAndCommentsToItem_shouldReturnItem() {
         Long itemId = 1L;
-        Sort sort = Sort.by("created").descending();
 
         Item item = initItem();
         item.setId(itemId);
@@ -516,13 +592,11 @@ class ItemServiceImplTest {
         Comment comment1 = initComment();
         Comment comment2 = initComment();
 
-        List<Booking> bookings = List.of(booking1, booking2);
         List<Comment> comments = List.of(comment1, comment2);
 
-        when(bookingService.getBookingsByItemId(itemId)).thenReturn(bookings);
-        when(bookingService.getLastBooking(bookings)).thenReturn(booking1);
-        when(bookingService.getNextBooking(bookings)).thenReturn(booking2);
-        when(commentRepository.findByItemId(itemId, sort)).thenReturn(comments);
+        when(itemLookupBatcher.getLastBookingByItemId(itemId)).thenReturn(booking1);
+        when(itemLookupBatcher.getNextBookingByItemId(itemId)).thenReturn(booking2);
+        when(itemLookupBatcher.getCommentsByItemId(itemId)).thenReturn(comments);
 
         itemService.setBookingsAndCommentsToItem(item);
 
@@ -530,16 +604,14 @@ class ItemServiceImplTest {
         assertThat(item.getNextBooking()).isEqualTo(booking2);
         assertThat(item.getComments()).isEqualTo(comments);
 
-        verify(bookingService, times(1)).getBookingsByItemId(itemId);
-        verify(bookingService, times(1)).getLastBooking(bookings);
-        verify(bookingService, times(1)).getNextBooking(bookings);
-        verify(commentRepository, times(1)).findByItemId(itemId, sort);
+        verify(itemLookupBatcher, times(1)).getLastBookingByItemId(itemId);
+        verify(itemLookupBatcher, times(1)).getNextBookingByItemId(itemId);
+        verify(itemLookupBatcher, times(1)).getCommentsByItemId(itemId);
     }
 
     @Test
     void setCommentsToItem_shouldReturnItem() {
         Long itemId = 1L;
-        Sort sort = Sort.by("created").descending();
 
         Item item = initItem();
         item.setId(itemId);
@@ -549,13 +621,13 @@ class ItemServiceImplTest {
 
         List<Comment> comments = List.of(comment1, comment2);
 
-        when(commentRepository.findByItemId(itemId, sort)).thenReturn(comments);
+        when(itemLookupBatcher.getCommentsByItemId(itemId)).thenReturn(comments);
 
         itemService.setCommentsToItem(item);
 
         assertThat(item.getComments()).isEqualTo(comments);
 
-        verify(commentRepository, times(1)).findByItemId(itemId, sort);
+        verify(itemLookupBatcher, times(1)).getCommentsByItemId(itemId);
     }
 
     private Item initItem() {
@@ -0,0 +1,55 @@
+package ru.yandex.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementCountInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StatementCounter statementCounter;
+    private StatementCountInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statementCounter = new StatementCounter();
+        interceptor = new StatementCountInterceptor(statementCounter, meterRegistry);
+    }
+
+    @Test
+    void afterCompletion_shouldRecordTheStatementsOfTheRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/owner");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/bookings/owner");
+
+        statementCounter.inspect("select 1");
+
+        interceptor.preHandle(request, response, new Object());
+        statementCounter.inspect("select 2");
+        statementCounter.inspect("select 3");
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        DistributionSummary summary = meterRegistry.find("shareit.http.server.statements")
+                .tag("method", "GET")
+                .tag("uri", "/bookings/owner")
+                .summary();
+
+        assertThat(summary).isNotNull();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2);
+        assertThat(statementCounter.getCount()).isZero();
+    }
+
+    @Test
+    void inspect_shouldReturnTheStatementUnchanged() {
+        assertThat(statementCounter.inspect("select 1")).isEqualTo("select 1");
+        assertThat(statementCounter.getCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.yandex.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.shareit.validator.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class KeysetCursorTest {
+
+    @Test
+    void decode_shouldReturnTheEncodedCursor() {
+        KeysetCursor cursor = KeysetCursor.of(LocalDateTime.of(2023, 5, 8, 12, 5, 1, 123456000), 42L);
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encode_shouldReturnAnUrlSafeToken() {
+        String token = KeysetCursor.of(LocalDateTime.of(2023, 5, 8, 12, 5), Long.MAX_VALUE).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void decode_shouldThrowAnException_ifTheTokenIsNotBase64() {
+        assertThatExceptionOfType(ValidationException.class)
+                .isThrownBy(() -> KeysetCursor.decode("not a cursor"));
+    }
+
+    @Test
+    void decode_shouldThrowAnException_ifTheTokenHasNoId() {
+        String token = Base64.getUrlEncoder().encodeToString("2023-05-08T12:05".getBytes(StandardCharsets.UTF_8));
+
+        assertThatExceptionOfType(ValidationException.class)
+                .isThrownBy(() -> KeysetCursor.decode(token));
+    }
+
+    @Test
+    void decode_shouldThrowAnException_ifTheTimestampIsMalformed() {
+        String token = Base64.getUrlEncoder().encodeToString("yesterday_1".getBytes(StandardCharsets.UTF_8));
+
+        assertThatExceptionOfType(ValidationException.class)
+                .isThrownBy(() -> KeysetCursor.decode(token));
+    }
+}
@@ -10,22 +10,28 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 import ru.yandex.practicum.shareit.user.User;
 import ru.yandex.practicum.shareit.user.UserService;
 import ru.yandex.practicum.shareit.validator.ErrorHandler;
 import ru.yandex.practicum.shareit.validator.NotFoundException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -59,13 +65,15 @@ class ItemRequestControllerTest {
     void getItemRequestsAll_shouldReturnEmptyListOfRequests() throws Exception {
         Long userId = 1L;
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("created").descending());
+        Pageable page = PageRequest.of(0, size, ItemRequestFeed.SORT_BY_CREATED);
+
+        when(itemRequestService.getItemRequestsAll(userId, null, page)).thenReturn(new SliceImpl<>(List.of()));
 
         mockMvc.perform(get("/requests/all").header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
 
-        verify(itemRequestService, times(1)).getItemRequestsAll(userId, page);
+        verify(itemRequestService, times(1)).getItemRequestsAll(userId, null, page);
     }
 
     @Test
@@ -74,7 +82,7 @@ class ItemRequestControllerTest {
         Long itemRequestId1 = 1L;
         Long itemRequestId2 = 2L;
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("created").descending());
+        Pageable page = PageRequest.of(0, size, ItemRequestFeed.SORT_BY_CREATED);
 
         ItemRequestDto itemRequestDto1 = initItemRequestDto();
         ItemRequestDto itemRequestDto2 = initItemRequestDto();
@@ -91,14 +99,16 @@ class ItemRequestControllerTest {
 
         String json = objectMapper.writeValueAsString(expectedItemRequestDto);
 
-        when(itemRequestService.getItemRequestsAll(userId, page)).thenReturn(expectedItemRequest);
+        when(itemRequestService.getItemRequestsAll(userId, null, page))
+                .thenReturn(new SliceImpl<>(expectedItemRequest));
         when(itemRequestMapper.toDtos(expectedItemRequest)).thenReturn(expectedItemRequestDto);
 
         mockMvc.perform(get("/requests/all").header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
-                .andExpect(content().json(json));
+                .andExpect(content().json(json))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
 
-        verify(itemRequestService, times(1)).getItemRequestsAll(userId, page);
+        verify(itemRequestService, times(1)).getItemRequestsAll(userId, null, page);
         verify(itemRequestService, times(1)).setItemsToItemRequests(expectedItemRequest);
         verify(itemRequestMapper, times(1)).toDtos(expectedItemRequest);
 
@@ -108,14 +118,49 @@ class ItemRequestControllerTest {
     void getItemRequestsAll_shouldResponseWithNotFound_ifUserDoesNotExist() throws Exception {
         Long userId = 1L;
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("created").descending());
+        Pageable page = PageRequest.of(0, size, ItemRequestFeed.SORT_BY_CREATED);
 
-        when(itemRequestService.getItemRequestsAll(userId, page)).thenThrow(NotFoundException.class);
+        when(itemRequestService.getItemRequestsAll(userId, null, page)).thenThrow(NotFoundException.class);
 
         mockMvc.perform(get("/requests/all").header("X-Sharer-User-Id", userId))
                 .andExpect(status().isNotFound());
 
-        verify(itemRequestService, times(1)).getItemRequestsAll(userId, page);
+        verify(itemRequestService, times(1)).getItemRequestsAll(userId, null, page);
+    }
+
+    @Test
+    void getItemRequestsAll_shouldReturnTheNextCursor_ifThereIsANextSlice() throws Exception {
+        Long userId = 1L;
+        Integer size = 2;
+        Pageable page = PageRequest.of(0, size, ItemRequestFeed.SORT_BY_CREATED);
+        KeysetCursor cursor = KeysetCursor.of(LocalDateTime.of(2023, 5, 8, 12, 5), 7L);
+
+        ItemRequest itemRequest1 = initItemRequest();
+        ItemRequest itemRequest2 = initItemRequest();
+        itemRequest1.setId(6L);
+        itemRequest1.setCreated(LocalDateTime.of(2023, 5, 8, 12, 4));
+        itemRequest2.setId(5L);
+        itemRequest2.setCreated(LocalDateTime.of(2023, 5, 8, 12, 3));
+
+        List<ItemRequest> expectedItemRequest = List.of(itemRequest1, itemRequest2);
+        String nextCursor = KeysetCursor.of(itemRequest2.getCreated(), itemRequest2.getId()).encode();
+
+        when(itemRequestService.getItemRequestsAll(userId, cursor, page))
+                .thenReturn(new SliceImpl<>(expectedItemRequest, page, true));
+        when(itemRequestMapper.toDtos(expectedItemRequest)).thenReturn(List.of());
+
+        mockMvc.perform(get("/requests/all?size={size}&cursor={cursor}", size, cursor.encode())
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", nextCursor));
+    }
+
+    @Test
+    void getItemRequestsAll_shouldResponseWithBadRequest_ifTheCursorIsMalformed() throws Exception {
+        mockMvc.perform(get("/requests/all?cursor={cursor}", "broken").header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+
+        verify(itemRequestService, never()).getItemRequestsAll(any(), any(), any());
     }
 
     @Test
@@ -192,10 +237,28 @@ class ItemRequestControllerTest {
 
         verify(itemRequestService, times(1)).getItemRequestById(itemRequestId, userId);
         verify(itemRequestService, times(1)).setItemsToItemRequest(itemRequest);
+        verify(itemRequestService, never()).setSuggestedItemsToItemRequests(anyList());
         verify(itemRequestMapper, times(1)).toDto(itemRequest);
 
     }
 
+    @Test
+    void getItemRequestById_shouldSetSuggestedItems_ifTheUserIsTheRequestor() throws Exception {
+        Long userId = 1L;
+        Long itemRequestId = 2L;
+
+        ItemRequest itemRequest = initItemRequest();
+        itemRequest.getRequestor().setId(userId);
+
+        when(itemRequestService.getItemRequestById(itemRequestId, userId)).thenReturn(itemRequest);
+        when(itemRequestMapper.toDto(itemRequest)).thenReturn(initItemRequestDto());
+
+        mockMvc.perform(get("/requests/{id}", itemRequestId).header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk());
+
+        verify(itemRequestService, times(1)).setSuggestedItemsToItemRequests(List.of(itemRequest));
+    }
+
     @Test
     void getItemRequestById_shouldResponseWithNotFound_ifItemRequestDoesNotExist() throws Exception {
         Long userId = 1L;
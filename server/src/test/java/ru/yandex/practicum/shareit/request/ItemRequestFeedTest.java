@@ -0,0 +1,173 @@
+package ru.yandex.practicum.shareit.request;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
+import ru.yandex.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRequestFeedTest {
+
+    private static final int CAPACITY = 4;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2023, 1, 1, 10, 0);
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    private MeterRegistry meterRegistry;
+    private ItemRequestFeed itemRequestFeed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemRequestFeed = new ItemRequestFeed(itemRequestRepository, CAPACITY, meterRegistry);
+    }
+
+    @Test
+    void find_shouldReturnEmpty_ifTheFeedIsNotLoaded() {
+        assertThat(itemRequestFeed.find(1L, null, page(0, 2))).isEmpty();
+        assertThat(meterRegistry.counter("shareit.request.feed", "source", "database").count()).isEqualTo(1);
+    }
+
+    @Test
+    void find_shouldSkipTheRequestsOfTheUser_andTheOffset() {
+        load(initItemRequest(1L, 10L, 1), initItemRequest(2L, 20L, 2), initItemRequest(3L, 10L, 3));
+
+        Optional<Slice<ItemRequest>> first = itemRequestFeed.find(10L, null, page(0, 1));
+        Optional<Slice<ItemRequest>> second = itemRequestFeed.find(20L, null, page(1, 1));
+
+        assertThat(first).hasValueSatisfying(slice -> {
+            assertThat(slice.getContent()).extracting(ItemRequest::getId).containsExactly(2L);
+            assertThat(slice.hasNext()).isFalse();
+        });
+        assertThat(second).hasValueSatisfying(slice -> {
+            assertThat(slice.getContent()).extracting(ItemRequest::getId).containsExactly(1L);
+            assertThat(slice.hasNext()).isFalse();
+        });
+        assertThat(meterRegistry.counter("shareit.request.feed", "source", "memory").count()).isEqualTo(2);
+    }
+
+    @Test
+    void find_shouldReturnTheRequestsAfterTheCursor_newestFirst() {
+        load(initItemRequest(1L, 10L, 1), initItemRequest(2L, 10L, 2), initItemRequest(3L, 10L, 2));
+
+        Optional<Slice<ItemRequest>> page = itemRequestFeed.find(20L, KeysetCursor.of(CREATED.plusMinutes(2), 3L),
+                page(0, 1));
+
+        assertThat(page).hasValueSatisfying(slice -> {
+            assertThat(slice.getContent()).extracting(ItemRequest::getId).containsExactly(2L);
+            assertThat(slice.hasNext()).isTrue();
+        });
+    }
+
+    @Test
+    void find_shouldReturnEmpty_ifThePageReachesPastTheTrimmedSegment() {
+        load(initItemRequest(1L, 10L, 1), initItemRequest(2L, 10L, 2), initItemRequest(3L, 10L, 3),
+                initItemRequest(4L, 10L, 4));
+
+        itemRequestFeed.append(initItemRequest(5L, 10L, 5));
+
+        assertThat(itemRequestFeed.find(20L, null, page(0, 3))).hasValueSatisfying(slice -> {
+            assertThat(slice.getContent()).extracting(ItemRequest::getId).containsExactly(5L, 4L, 3L);
+            assertThat(slice.hasNext()).isTrue();
+        });
+        assertThat(itemRequestFeed.find(20L, null, page(0, 4))).isEmpty();
+        assertThat(itemRequestFeed.find(20L, KeysetCursor.of(CREATED.plusMinutes(3), 3L), page(0, 3))).isEmpty();
+    }
+
+    @Test
+    void append_shouldKeepTheOrder_ifRequestsCommitOutOfOrder() {
+        load();
+
+        itemRequestFeed.append(initItemRequest(2L, 10L, 2));
+        itemRequestFeed.append(initItemRequest(1L, 10L, 1));
+        itemRequestFeed.append(initItemRequest(3L, 10L, 3));
+
+        assertThat(itemRequestFeed.find(20L, null, page(0, 10))).hasValueSatisfying(slice ->
+                assertThat(slice.getContent()).extracting(ItemRequest::getId).containsExactly(3L, 2L, 1L));
+    }
+
+    @Test
+    void removeByRequestorId_shouldDropTheRequestsOfTheUser() {
+        load(initItemRequest(1L, 10L, 1), initItemRequest(2L, 20L, 2));
+
+        itemRequestFeed.removeByRequestorId(20L);
+
+        assertThat(itemRequestFeed.find(30L, null, page(0, 10))).hasValueSatisfying(slice ->
+                assertThat(slice.getContent()).extracting(ItemRequest::getId).containsExactly(1L));
+    }
+
+    @Test
+    void removeByRequestorId_shouldKeepTheRequests_untilTheTransactionCommits() {
+        load(initItemRequest(1L, 10L, 1), initItemRequest(2L, 20L, 2));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemRequestFeed.removeByRequestorId(20L);
+
+            assertThat(itemRequestFeed.find(30L, null, page(0, 10))).hasValueSatisfying(slice ->
+                    assertThat(slice.getContent()).extracting(ItemRequest::getId).containsExactly(2L, 1L));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(itemRequestFeed.find(30L, null, page(0, 10))).hasValueSatisfying(slice ->
+                assertThat(slice.getContent()).extracting(ItemRequest::getId).containsExactly(1L));
+    }
+
+    @Test
+    void find_shouldReturnACopyOfTheRequest() {
+        load(initItemRequest(1L, 10L, 1));
+
+        itemRequestFeed.find(20L, null, page(0, 1)).orElseThrow().getContent().get(0).setDescription("changed");
+
+        assertThat(itemRequestFeed.find(20L, null, page(0, 1)).orElseThrow().getContent().get(0).getDescription())
+                .isEqualTo("Нужна дрель");
+    }
+
+    private void load(ItemRequest... itemRequestArray) {
+        List<ItemRequest> itemRequests = List.of(itemRequestArray);
+
+        when(itemRequestRepository.findAll(PageRequest.of(0, CAPACITY, ItemRequestFeed.SORT_BY_CREATED)))
+                .thenReturn(new PageImpl<>(itemRequests));
+
+        itemRequestFeed.load();
+    }
+
+    private static Pageable page(int number, int size) {
+        return PageRequest.of(number, size, ItemRequestFeed.SORT_BY_CREATED);
+    }
+
+    private static ItemRequest initItemRequest(Long id, Long requestorId, int minutes) {
+        User requestor = new User();
+        requestor.setId(requestorId);
+
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setId(id);
+        itemRequest.setRequestor(requestor);
+        itemRequest.setDescription("Нужна дрель");
+        itemRequest.setCreated(CREATED.plusMinutes(minutes));
+
+        return itemRequest;
+    }
+}
@@ -0,0 +1,203 @@
+package ru.yandex.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.yandex.practicum.shareit.item.Item;
+import ru.yandex.practicum.shareit.user.User;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRequestMatcherTest {
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    @Mock
+    private RequestSuggestionRepository requestSuggestionRepository;
+
+    @InjectMocks
+    private ItemRequestMatcher itemRequestMatcher;
+
+    @Test
+    void stems_shouldCutWordsToStems_andSkipShortAndStopWords() {
+        assertThat(ItemRequestMatcher.stems("Хотел бы воспользоваться щёткой для обуви!"))
+                .containsExactlyInAnyOrder("ЩЕТК", "ОБУВ");
+        assertThat(ItemRequestMatcher.stems(null)).isEmpty();
+    }
+
+    @Test
+    void match_shouldFindRequestsOfOtherUsers_byTheInflectedFormsOfTheItemName() {
+        itemRequestMatcher.index(initItemRequest(1L, 10L, "Нужна дрель с ударным режимом"));
+        itemRequestMatcher.index(initItemRequest(2L, 20L, "Ищу дрели и шуруповерт"));
+        itemRequestMatcher.index(initItemRequest(3L, 30L, "Нужна стремянка"));
+
+        assertThat(itemRequestMatcher.match("Дрель аккумуляторная", 30L)).containsExactly(2L, 1L);
+        assertThat(itemRequestMatcher.match("Дрель аккумуляторная", 10L)).containsExactly(2L);
+        assertThat(itemRequestMatcher.match("Пила", 30L)).isEmpty();
+    }
+
+    @Test
+    void match_shouldReturnTheNewestRequests_upToTheLimit() {
+        LongStream.rangeClosed(1, 25)
+                .forEach(id -> itemRequestMatcher.index(initItemRequest(id, id + 100, "Нужна дрель")));
+
+        List<Long> expected = LongStream.iterate(25, id -> id - 1).limit(20).boxed().collect(Collectors.toList());
+
+        assertThat(itemRequestMatcher.match("Дрель", 1L)).isEqualTo(expected);
+    }
+
+    @Test
+    void matchItems_shouldSaveSuggestions_andCloseTheRequestOfAnItem() {
+        ItemRequest itemRequest1 = initItemRequest(1L, 10L, "Нужна дрель");
+        ItemRequest itemRequest2 = initItemRequest(2L, 20L, "Ищу дрели");
+        itemRequestMatcher.index(itemRequest1);
+        itemRequestMatcher.index(itemRequest2);
+
+        when(itemRequestRepository.getReferenceById(1L)).thenReturn(itemRequest1);
+
+        Item answer = initItem(100L, 30L, "Дрель");
+        answer.setRequest(itemRequest2);
+        Item other = initItem(101L, 30L, "Дрель ударная");
+
+        itemRequestMatcher.matchItems(List.of(answer, other));
+
+        ArgumentCaptor<List<RequestSuggestion>> suggestions = suggestionsCaptor();
+        verify(requestSuggestionRepository, times(1)).saveAll(suggestions.capture());
+        assertThat(suggestions.getValue()).hasSize(1);
+        assertThat(suggestions.getValue().get(0).getRequest()).isEqualTo(itemRequest1);
+        assertThat(suggestions.getValue().get(0).getItem()).isEqualTo(other);
+        assertThat(itemRequestMatcher.match("Дрель", 30L)).containsExactly(1L);
+    }
+
+    @Test
+    void matchItems_shouldCloseTheRequest_onlyAfterTheTransactionCommits() {
+        ItemRequest itemRequest = initItemRequest(1L, 10L, "Нужна дрель");
+        itemRequestMatcher.index(itemRequest);
+
+        Item answer = initItem(100L, 30L, "Дрель");
+        answer.setRequest(itemRequest);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemRequestMatcher.matchItems(List.of(answer));
+
+            assertThat(itemRequestMatcher.match("Дрель", 30L)).containsExactly(1L);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(itemRequestMatcher.match("Дрель", 30L)).isEmpty();
+    }
+
+    @Test
+    void matchItems_shouldNotSave_ifNothingMatches() {
+        itemRequestMatcher.matchItems(List.of(initItem(100L, 30L, "Дрель")));
+
+        verify(requestSuggestionRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void removeByRequestorId_shouldRemoveAllRequestsOfTheUser() {
+        itemRequestMatcher.index(initItemRequest(1L, 10L, "Нужна дрель"));
+        itemRequestMatcher.index(initItemRequest(2L, 10L, "Ищу дрели"));
+        itemRequestMatcher.index(initItemRequest(3L, 20L, "Ищу дрели"));
+
+        itemRequestMatcher.removeByRequestorId(10L);
+
+        assertThat(itemRequestMatcher.match("Дрель", 30L)).containsExactly(3L);
+    }
+
+    @Test
+    void removeByRequestorId_shouldKeepTheRequests_untilTheTransactionCommits() {
+        itemRequestMatcher.index(initItemRequest(1L, 10L, "Нужна дрель"));
+        itemRequestMatcher.index(initItemRequest(2L, 20L, "Ищу дрели"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemRequestMatcher.removeByRequestorId(10L);
+
+            assertThat(itemRequestMatcher.match("Дрель", 30L)).containsExactlyInAnyOrder(1L, 2L);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(itemRequestMatcher.match("Дрель", 30L)).containsExactly(2L);
+    }
+
+    @Test
+    void rebuild_shouldLoadTheOpenRequestsPageByPage() {
+        List<ItemRequest> firstPage = LongStream.rangeClosed(1, 1000)
+                .mapToObj(id -> initItemRequest(id, 10L, "Нужна дрель"))
+                .collect(Collectors.toList());
+
+        when(itemRequestRepository.findOpenByIdGreaterThan(any(), any())).thenReturn(firstPage,
+                Collections.singletonList(initItemRequest(1001L, 10L, "Нужна пила")));
+
+        itemRequestMatcher.rebuild();
+
+        verify(itemRequestRepository, times(1)).findOpenByIdGreaterThan(0L, PageRequest.of(0, 1000));
+        verify(itemRequestRepository, times(1)).findOpenByIdGreaterThan(1000L, PageRequest.of(0, 1000));
+        assertThat(itemRequestMatcher.match("Пила", 30L)).containsExactly(1001L);
+        assertThat(itemRequestMatcher.match("Дрель", 30L)).hasSize(20);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<RequestSuggestion>> suggestionsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    private static ItemRequest initItemRequest(Long id, Long requestorId, String description) {
+        ItemRequest itemRequest = new ItemRequest();
+
+        itemRequest.setId(id);
+        itemRequest.setDescription(description);
+        itemRequest.setRequestor(initUser(requestorId));
+
+        return itemRequest;
+    }
+
+    private static Item initItem(Long id, Long ownerId, String name) {
+        Item item = new Item();
+
+        item.setId(id);
+        item.setName(name);
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(initUser(ownerId));
+
+        return item;
+    }
+
+    private static User initUser(Long id) {
+        User user = new User();
+
+        user.setId(id);
+        user.setName("user");
+        user.setEmail("user@user.com");
+
+        return user;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.yandex.practicum.shareit.request;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.yandex.practicum.shareit.user.User;
+import ru.yandex.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ItemRequestRepositoryTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2023, 5, 8, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Pageable page = PageRequest.of(0, 10, ItemRequestFeed.SORT_BY_CREATED);
+
+    private User reader;
+    private ItemRequest live;
+    private ItemRequest hidden;
+
+    @BeforeEach
+    void setUp() {
+        reader = entityManager.persist(initUser("reader@user.com"));
+        User liveRequestor = entityManager.persist(initUser("live@user.com"));
+        User hiddenRequestor = entityManager.persist(initUser("hidden@user.com"));
+
+        live = entityManager.persist(initItemRequest(liveRequestor, 1));
+        hidden = entityManager.persist(initItemRequest(hiddenRequestor, 2));
+        entityManager.persist(initItemRequest(reader, 3));
+
+        entityManager.flush();
+        userRepository.markDeletedById(hiddenRequestor.getId());
+        entityManager.clear();
+    }
+
+    @Test
+    void findByRequestorIdNot_shouldLeaveOutTheRequestsOfHiddenUsers() {
+        assertThat(itemRequestRepository.findByRequestorIdNot(reader.getId(), page).getContent())
+                .extracting(ItemRequest::getId)
+                .containsExactly(live.getId());
+    }
+
+    @Test
+    void findByRequestorIdNotBefore_shouldLeaveOutTheRequestsOfHiddenUsers() {
+        assertThat(itemRequestRepository.findByRequestorIdNotBefore(reader.getId(), CREATED.plusMinutes(10),
+                0L, page).getContent())
+                .extracting(ItemRequest::getId)
+                .containsExactly(live.getId())
+                .doesNotContain(hidden.getId());
+    }
+
+    private static ItemRequest initItemRequest(User requestor, int minutes) {
+        ItemRequest itemRequest = new ItemRequest();
+
+        itemRequest.setDescription("Нужна дрель");
+        itemRequest.setRequestor(requestor);
+        itemRequest.setCreated(CREATED.plusMinutes(minutes));
+
+        return itemRequest;
+    }
+
+    private static User initUser(String email) {
+        User user = new User();
+
+        user.setEmail(email);
+        user.setName("user");
+
+        return user;
+    }
+}
@@ -7,13 +7,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import ru.yandex.practicum.shareit.item.Item;
 import ru.yandex.practicum.shareit.item.ItemService;
+import ru.yandex.practicum.shareit.pagination.KeysetCursor;
 import ru.yandex.practicum.shareit.user.User;
-import ru.yandex.practicum.shareit.user.UserRepository;
+import ru.yandex.practicum.shareit.user.UserService;
 import ru.yandex.practicum.shareit.validator.NotFoundException;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -33,11 +37,20 @@ class ItemRequestServiceImplTest {
     private ItemRequestRepository itemRequestRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private UserService userService;
 
     @Mock
     private ItemService itemService;
 
+    @Mock
+    private RequestSuggestionRepository requestSuggestionRepository;
+
+    @Mock
+    private ItemRequestMatcher itemRequestMatcher;
+
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -45,14 +58,14 @@ class ItemRequestServiceImplTest {
     void getItemRequestsAll_shouldReturnEmptyListOfRequests() {
         Long userId = 1L;
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("created").descending());
+        Pageable page = PageRequest.of(0, size, ItemRequestFeed.SORT_BY_CREATED);
 
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(itemRequestRepository.findByRequestorIdNot(userId, page)).thenReturn(Collections.emptyList());
+        when(userService.existsById(userId)).thenReturn(true);
+        when(itemRequestRepository.findByRequestorIdNot(userId, page)).thenReturn(new SliceImpl<>(List.of()));
 
-        assertThat(itemRequestService.getItemRequestsAll(userId, page)).isEmpty();
+        assertThat(itemRequestService.getItemRequestsAll(userId, null, page)).isEmpty();
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
         verify(itemRequestRepository, times(1)).findByRequestorIdNot(userId, page);
     }
 
@@ -60,19 +73,19 @@ class ItemRequestServiceImplTest {
     void getItemRequestsAll_shouldReturnAListOfRequests() {
         Long userId = 1L;
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("created").descending());
+        Pageable page = PageRequest.of(0, size, ItemRequestFeed.SORT_BY_CREATED);
 
         ItemRequest itemRequest1 = initItemRequest();
         ItemRequest itemRequest2 = initItemRequest();
 
         List<ItemRequest> expected = List.of(itemRequest1, itemRequest2);
 
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(itemRequestRepository.findByRequestorIdNot(userId, page)).thenReturn(expected);
+        when(userService.existsById(userId)).thenReturn(true);
+        when(itemRequestRepository.findByRequestorIdNot(userId, page)).thenReturn(new SliceImpl<>(expected));
 
-        assertThat(itemRequestService.getItemRequestsAll(userId, page)).isEqualTo(expected);
+        assertThat(itemRequestService.getItemRequestsAll(userId, null, page).getContent()).isEqualTo(expected);
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
         verify(itemRequestRepository, times(1)).findByRequestorIdNot(userId, page);
     }
 
@@ -80,28 +93,57 @@ class ItemRequestServiceImplTest {
     void getItemRequestsAll_shouldThrowAnException_ifUserDoesNotExist() {
         Long userId = 1L;
         Integer size = 20;
-        Pageable page = PageRequest.of(0, size, Sort.by("created").descending());
+        Pageable page = PageRequest.of(0, size, ItemRequestFeed.SORT_BY_CREATED);
 
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userService.existsById(userId)).thenReturn(false);
 
         assertThatExceptionOfType(NotFoundException.class)
-                .isThrownBy(() -> itemRequestService.getItemRequestsAll(userId, page));
+                .isThrownBy(() -> itemRequestService.getItemRequestsAll(userId, null, page));
+
+        verify(userService, times(1)).existsById(userId);
+        verify(itemRequestRepository, never()).findByRequestorIdNot(userId, page);
+    }
+
+    @Test
+    void getItemRequestsAll_shouldReturnAPageOfTheFeed_withoutAQuery() {
+        Long userId = 1L;
+        Pageable page = PageRequest.of(0, 20, ItemRequestFeed.SORT_BY_CREATED);
+        Slice<ItemRequest> expected = new SliceImpl<>(List.of(initItemRequest()));
+
+        when(userService.existsById(userId)).thenReturn(true);
+        when(itemRequestFeed.find(userId, null, page)).thenReturn(Optional.of(expected));
+
+        assertThat(itemRequestService.getItemRequestsAll(userId, null, page)).isEqualTo(expected);
 
-        verify(userRepository, times(1)).existsById(userId);
         verify(itemRequestRepository, never()).findByRequestorIdNot(userId, page);
     }
 
+    @Test
+    void getItemRequestsAll_shouldSeekPastTheCursor_ifThePageIsNotInTheFeed() {
+        Long userId = 1L;
+        Pageable page = PageRequest.of(2, 20, ItemRequestFeed.SORT_BY_CREATED);
+        KeysetCursor cursor = KeysetCursor.of(LocalDateTime.of(2023, 1, 1, 10, 0), 5L);
+        List<ItemRequest> expected = List.of(initItemRequest());
+
+        when(userService.existsById(userId)).thenReturn(true);
+        when(itemRequestFeed.find(userId, cursor, page)).thenReturn(Optional.empty());
+        when(itemRequestRepository.findByRequestorIdNotBefore(userId, cursor.getTimestamp(), cursor.getId(),
+                PageRequest.of(0, 20, ItemRequestFeed.SORT_BY_CREATED))).thenReturn(new SliceImpl<>(expected));
+
+        assertThat(itemRequestService.getItemRequestsAll(userId, cursor, page).getContent()).isEqualTo(expected);
+    }
+
     @Test
     void getItemRequestsByUserId_shouldReturnEmptyListOfRequests() {
         Long userId = 1L;
         Sort sort = Sort.by("created").descending();
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userService.existsById(userId)).thenReturn(true);
         when(itemRequestRepository.findByRequestorId(userId, sort)).thenReturn(Collections.emptyList());
 
         assertThat(itemRequestService.getItemRequestsByUserId(userId)).isEmpty();
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
         verify(itemRequestRepository, times(1)).findByRequestorId(userId, sort);
     }
 
@@ -115,12 +157,12 @@ class ItemRequestServiceImplTest {
 
         List<ItemRequest> expected = List.of(itemRequest1, itemRequest2);
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userService.existsById(userId)).thenReturn(true);
         when(itemRequestRepository.findByRequestorId(userId, sort)).thenReturn(expected);
 
         assertThat(itemRequestService.getItemRequestsByUserId(userId)).isEqualTo(expected);
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
         verify(itemRequestRepository, times(1)).findByRequestorId(userId, sort);
     }
 
@@ -129,12 +171,12 @@ class ItemRequestServiceImplTest {
         Long userId = 1L;
         Sort sort = Sort.by("created").descending();
 
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userService.existsById(userId)).thenReturn(false);
 
         assertThatExceptionOfType(NotFoundException.class)
                 .isThrownBy(() -> itemRequestService.getItemRequestsByUserId(userId));
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
         verify(itemRequestRepository, never()).findByRequestorId(userId, sort);
     }
 
@@ -145,27 +187,44 @@ class ItemRequestServiceImplTest {
 
         ItemRequest itemRequest = initItemRequest();
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userService.existsById(userId)).thenReturn(true);
         when(itemRequestRepository.findById(itemRequestId)).thenReturn(Optional.of(itemRequest));
 
         assertThat(itemRequestService.getItemRequestById(itemRequestId, userId)).isEqualTo(itemRequest);
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
         verify(itemRequestRepository, times(1)).findById(itemRequestId);
     }
 
+    @Test
+    void getItemRequestsByIds_shouldReturnTheExistingItemRequestsById() {
+        ItemRequest itemRequest1 = initItemRequest();
+        ItemRequest itemRequest2 = initItemRequest();
+        itemRequest1.setId(1L);
+        itemRequest2.setId(2L);
+
+        List<Long> ids = List.of(1L, 2L, 3L);
+
+        when(itemRequestRepository.findAllById(ids)).thenReturn(List.of(itemRequest1, itemRequest2));
+
+        assertThat(itemRequestService.getItemRequestsByIds(ids))
+                .isEqualTo(Map.of(1L, itemRequest1, 2L, itemRequest2));
+
+        verify(itemRequestRepository, times(1)).findAllById(ids);
+    }
+
     @Test
     void getItemRequestById_shouldThrowAnException_ifItemRequestDoesNotExist() {
         Long userId = 1L;
         Long itemRequestId = 2L;
 
-        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userService.existsById(userId)).thenReturn(true);
         when(itemRequestRepository.findById(itemRequestId)).thenReturn(Optional.empty());
 
         assertThatExceptionOfType(NotFoundException.class)
                 .isThrownBy(() -> itemRequestService.getItemRequestById(itemRequestId, userId));
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
         verify(itemRequestRepository, times(1)).findById(itemRequestId);
     }
 
@@ -174,12 +233,12 @@ class ItemRequestServiceImplTest {
         Long userId = 1L;
         Long itemRequestId = 2L;
 
-        when(userRepository.existsById(userId)).thenReturn(false);
+        when(userService.existsById(userId)).thenReturn(false);
 
         assertThatExceptionOfType(NotFoundException.class)
                 .isThrownBy(() -> itemRequestService.getItemRequestById(itemRequestId, userId));
 
-        verify(userRepository, times(1)).existsById(userId);
+        verify(userService, times(1)).existsById(userId);
         verify(itemRequestRepository, never()).findById(itemRequestId);
     }
 
@@ -192,6 +251,8 @@ class ItemRequestServiceImplTest {
         assertThat(itemRequestService.createRequest(itemRequest)).isEqualTo(itemRequest);
 
         verify(itemRequestRepository, times(1)).save(itemRequest);
+        verify(itemRequestMatcher, times(1)).index(itemRequest);
+        verify(itemRequestFeed, times(1)).append(itemRequest);
     }
 
     @Test
@@ -245,6 +306,34 @@ class ItemRequestServiceImplTest {
         verify(itemService, times(1)).getItemsByRequestId(itemRequestId);
     }
 
+    @Test
+    void setSuggestedItemsToItemRequests_shouldSetTheSuggestedItemsOfEachRequest() {
+        ItemRequest itemRequest1 = initItemRequest();
+        ItemRequest itemRequest2 = initItemRequest();
+        itemRequest1.setId(1L);
+        itemRequest2.setId(2L);
+
+        Item item1 = initItem();
+        Item item2 = initItem();
+
+        when(requestSuggestionRepository.findByRequestIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                initSuggestion(itemRequest1, item1), initSuggestion(itemRequest1, item2)));
+
+        itemRequestService.setSuggestedItemsToItemRequests(List.of(itemRequest1, itemRequest2));
+
+        assertThat(itemRequest1.getSuggestedItems()).containsExactly(item1, item2);
+        assertThat(itemRequest2.getSuggestedItems()).isEmpty();
+    }
+
+    private RequestSuggestion initSuggestion(ItemRequest itemRequest, Item item) {
+        RequestSuggestion suggestion = new RequestSuggestion();
+
+        suggestion.setRequest(itemRequest);
+        suggestion.setItem(item);
+
+        return suggestion;
+    }
+
     private ItemRequest initItemRequest() {
         ItemRequest itemRequest = new ItemRequest();
 
@@ -0,0 +1,76 @@
+package ru.yandex.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LiveUserIdsTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private LiveUserIds liveUserIds;
+
+    @Test
+    void isAbsent_shouldReturnFalse_ifTheIdsAreNotLoaded() {
+        assertThat(liveUserIds.isAbsent(1L)).isFalse();
+    }
+
+    @Test
+    void isAbsent_shouldReturnTrue_onlyForIdsThatWereNotLoaded() {
+        when(userRepository.findIdsGreaterThan(0L, PageRequest.of(0, 10_000))).thenReturn(List.of(1L, 3L));
+
+        liveUserIds.load();
+
+        assertThat(liveUserIds.isAbsent(1L)).isFalse();
+        assertThat(liveUserIds.isAbsent(2L)).isTrue();
+        assertThat(liveUserIds.isAbsent(3L)).isFalse();
+        assertThat(liveUserIds.isAbsent(4L)).isTrue();
+        assertThat(liveUserIds.isAbsent(-1L)).isTrue();
+        assertThat(liveUserIds.isAbsent((long) Integer.MAX_VALUE + 1)).isFalse();
+    }
+
+    @Test
+    void load_shouldLoadTheIdsPageByPage() {
+        List<Long> firstPage = LongStream.rangeClosed(1, 10_000).boxed().collect(Collectors.toList());
+        when(userRepository.findIdsGreaterThan(0L, PageRequest.of(0, 10_000))).thenReturn(firstPage);
+        when(userRepository.findIdsGreaterThan(10_000L, PageRequest.of(0, 10_000))).thenReturn(List.of(10_001L));
+
+        liveUserIds.load();
+
+        assertThat(liveUserIds.isAbsent(10_000L)).isFalse();
+        assertThat(liveUserIds.isAbsent(10_001L)).isFalse();
+        assertThat(liveUserIds.isAbsent(10_002L)).isTrue();
+        verify(userRepository, times(2)).findIdsGreaterThan(any(), any());
+    }
+
+    @Test
+    void addAndRemove_shouldUpdateTheLoadedIds() {
+        when(userRepository.findIdsGreaterThan(0L, PageRequest.of(0, 10_000))).thenReturn(Collections.emptyList());
+
+        liveUserIds.load();
+        liveUserIds.add(5L);
+
+        assertThat(liveUserIds.isAbsent(5L)).isFalse();
+
+        liveUserIds.remove(5L);
+
+        assertThat(liveUserIds.isAbsent(5L)).isTrue();
+    }
+}
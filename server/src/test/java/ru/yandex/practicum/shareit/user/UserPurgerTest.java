@@ -0,0 +1,152 @@
+package ru.yandex.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.yandex.practicum.shareit.booking.BookingAvailabilityIndex;
+import ru.yandex.practicum.shareit.booking.BookingRepository;
+import ru.yandex.practicum.shareit.booking.CompletedRentals;
+import ru.yandex.practicum.shareit.item.CommentRepository;
+import ru.yandex.practicum.shareit.item.ItemRepository;
+import ru.yandex.practicum.shareit.request.ItemRequestRepository;
+import ru.yandex.practicum.shareit.request.RequestSuggestionRepository;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserPurgerTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    @Mock
+    private RequestSuggestionRepository requestSuggestionRepository;
+
+    @Mock
+    private BookingAvailabilityIndex bookingAvailabilityIndex;
+
+    @Mock
+    private CompletedRentals completedRentals;
+
+    private MeterRegistry meterRegistry;
+    private UserPurger userPurger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userPurger = new UserPurger(userRepository, itemRepository, bookingRepository, commentRepository,
+                itemRequestRepository, requestSuggestionRepository, bookingAvailabilityIndex, completedRentals,
+                meterRegistry, CHUNK_SIZE, Duration.ZERO);
+    }
+
+    @Test
+    void purge_shouldRemoveTheHistoryInChunks_andThenTheUser() {
+        Long userId = 1L;
+
+        when(userRepository.countDeleted()).thenReturn(1L);
+        when(userRepository.findFirstDeletedIdGreaterThan(0L)).thenReturn(userId);
+        when(userRepository.findFirstDeletedIdGreaterThan(userId)).thenReturn(null);
+        when(requestSuggestionRepository.deleteChunkByRequestorIdOrItemOwnerId(userId, CHUNK_SIZE)).thenReturn(1);
+        when(itemRepository.recountCommentsChunkByAuthorId(userId, CHUNK_SIZE)).thenReturn(1);
+        when(commentRepository.deleteChunkByAuthorIdOrItemOwnerId(userId, CHUNK_SIZE)).thenReturn(2, 0);
+        when(bookingRepository.deleteChunkByBookerIdOrItemOwnerId(userId, CHUNK_SIZE)).thenReturn(2, 2, 1);
+        when(itemRepository.clearRequestChunkByRequestorId(userId, CHUNK_SIZE)).thenReturn(0);
+        when(itemRepository.deleteChunkByOwnerId(userId, CHUNK_SIZE)).thenReturn(1);
+        when(itemRequestRepository.deleteChunkByRequestorId(userId, CHUNK_SIZE)).thenReturn(0);
+
+        userPurger.purge();
+
+        InOrder order = inOrder(requestSuggestionRepository, commentRepository, bookingRepository, itemRepository,
+                itemRequestRepository, userRepository, bookingAvailabilityIndex, completedRentals);
+        order.verify(requestSuggestionRepository, times(1))
+                .deleteChunkByRequestorIdOrItemOwnerId(userId, CHUNK_SIZE);
+        order.verify(itemRepository, times(1)).recountCommentsChunkByAuthorId(userId, CHUNK_SIZE);
+        order.verify(commentRepository, times(2)).deleteChunkByAuthorIdOrItemOwnerId(userId, CHUNK_SIZE);
+        order.verify(bookingRepository, times(3)).deleteChunkByBookerIdOrItemOwnerId(userId, CHUNK_SIZE);
+        order.verify(itemRepository, times(1)).clearRequestChunkByRequestorId(userId, CHUNK_SIZE);
+        order.verify(itemRepository, times(1)).deleteChunkByOwnerId(userId, CHUNK_SIZE);
+        order.verify(itemRequestRepository, times(1)).deleteChunkByRequestorId(userId, CHUNK_SIZE);
+        order.verify(userRepository, times(1)).deleteDeletedById(userId);
+        order.verify(bookingAvailabilityIndex, times(1)).clear();
+        order.verify(completedRentals, times(1)).removeByBookerId(userId);
+
+        assertThat(meterRegistry.counter("shareit.purge.rows", "table", "bookings").count()).isEqualTo(5);
+        assertThat(meterRegistry.counter("shareit.purge.users").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("shareit.purge.pending.users").gauge().value()).isZero();
+    }
+
+    @Test
+    void purge_shouldStartTheUserAgain_ifAChunkConflictsWithAConcurrentWrite() {
+        Long userId = 1L;
+
+        when(userRepository.findFirstDeletedIdGreaterThan(0L)).thenReturn(userId);
+        when(userRepository.findFirstDeletedIdGreaterThan(userId)).thenReturn(null);
+        when(itemRepository.deleteChunkByOwnerId(userId, CHUNK_SIZE))
+                .thenThrow(new DataIntegrityViolationException("bookings_item_id_fkey"))
+                .thenReturn(0);
+
+        userPurger.purge();
+
+        verify(bookingRepository, times(2)).deleteChunkByBookerIdOrItemOwnerId(userId, CHUNK_SIZE);
+        verify(userRepository, times(1)).deleteDeletedById(userId);
+        assertThat(meterRegistry.counter("shareit.purge.conflicts").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("shareit.purge.users").count()).isEqualTo(1);
+    }
+
+    @Test
+    void purge_shouldGoOnWithTheNextUser_ifAUserKeepsConflicting() {
+        Long userId1 = 1L;
+        Long userId2 = 2L;
+
+        when(userRepository.findFirstDeletedIdGreaterThan(0L)).thenReturn(userId1);
+        when(userRepository.findFirstDeletedIdGreaterThan(userId1)).thenReturn(userId2);
+        when(userRepository.findFirstDeletedIdGreaterThan(userId2)).thenReturn(null);
+        when(itemRepository.deleteChunkByOwnerId(userId1, CHUNK_SIZE))
+                .thenThrow(new DataIntegrityViolationException("bookings_item_id_fkey"));
+
+        userPurger.purge();
+
+        verify(itemRepository, times(3)).deleteChunkByOwnerId(userId1, CHUNK_SIZE);
+        verify(userRepository, never()).deleteDeletedById(userId1);
+        verify(userRepository, times(1)).deleteDeletedById(userId2);
+        assertThat(meterRegistry.counter("shareit.purge.conflicts").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("shareit.purge.users").count()).isEqualTo(1);
+    }
+
+    @Test
+    void purge_shouldDoNothing_ifThereAreNoHiddenUsers() {
+        when(userRepository.findFirstDeletedIdGreaterThan(0L)).thenReturn(null);
+
+        userPurger.purge();
+
+        verify(commentRepository, never()).deleteChunkByAuthorIdOrItemOwnerId(1L, CHUNK_SIZE);
+        verify(userRepository, never()).deleteDeletedById(1L);
+    }
+}
@@ -0,0 +1,98 @@
+package ru.yandex.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import ru.yandex.practicum.shareit.item.Item;
+import ru.yandex.practicum.shareit.item.ItemRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User user1;
+    private User user2;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        user1 = entityManager.persist(initUser("user1@user.com"));
+        user2 = entityManager.persist(initUser("user2@user.com"));
+        item = entityManager.persist(initItem(user1));
+        entityManager.flush();
+    }
+
+    @Test
+    void markDeletedById_shouldHideTheUser() {
+        userRepository.markDeletedById(user1.getId());
+        itemRepository.markDeletedByOwnerId(user1.getId());
+        entityManager.clear();
+
+        assertThat(userRepository.findById(user1.getId())).isEmpty();
+        assertThat(userRepository.existsById(user1.getId())).isFalse();
+        assertThat(userRepository.findAll()).extracting(User::getId).containsExactly(user2.getId());
+        assertThat(userRepository.findIdsGreaterThan(0L, PageRequest.of(0, 10))).containsExactly(user2.getId());
+        assertThat(itemRepository.findById(item.getId())).isEmpty();
+        assertThat(itemRepository.findByOwnerId(user1.getId(), PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void findFirstDeletedIdGreaterThan_shouldReturnTheNextIdOfAHiddenUser() {
+        assertThat(userRepository.findFirstDeletedIdGreaterThan(0L)).isNull();
+        assertThat(userRepository.countDeleted()).isZero();
+
+        userRepository.markDeletedById(user2.getId());
+        userRepository.markDeletedById(user1.getId());
+
+        assertThat(userRepository.findFirstDeletedIdGreaterThan(0L)).isEqualTo(user1.getId());
+        assertThat(userRepository.findFirstDeletedIdGreaterThan(user1.getId())).isEqualTo(user2.getId());
+        assertThat(userRepository.findFirstDeletedIdGreaterThan(user2.getId())).isNull();
+        assertThat(userRepository.countDeleted()).isEqualTo(2);
+    }
+
+    @Test
+    void deleteDeletedById_shouldRemoveOnlyAHiddenUser() {
+        itemRepository.deleteChunkByOwnerId(user1.getId(), 10);
+        userRepository.deleteDeletedById(user1.getId());
+
+        assertThat(userRepository.existsById(user1.getId())).isTrue();
+
+        userRepository.markDeletedById(user1.getId());
+        userRepository.deleteDeletedById(user1.getId());
+
+        assertThat(userRepository.countDeleted()).isZero();
+    }
+
+    private Item initItem(User owner) {
+        Item item = new Item();
+
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+
+        return item;
+    }
+
+    private User initUser(String email) {
+        User user = new User();
+
+        user.setEmail(email);
+        user.setName("user");
+
+        return user;
+    }
+}
@@ -0,0 +1,168 @@
+package ru.yandex.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.yandex.practicum.shareit.cache.CacheConfig;
+import ru.yandex.practicum.shareit.item.ItemRepository;
+import ru.yandex.practicum.shareit.item.ItemSearchIndex;
+import ru.yandex.practicum.shareit.request.ItemRequestFeed;
+import ru.yandex.practicum.shareit.request.ItemRequestMatcher;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({CacheConfig.class, UserServiceImpl.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+@TestPropertySource(properties = {
+        "spring.cache.cache-names=users,userExists",
+        "spring.cache.caffeine.spec=maximumSize=100"
+})
+class UserServiceCacheTest {
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private ItemRepository itemRepository;
+
+    @MockBean
+    private ItemSearchIndex itemSearchIndex;
+
+    @MockBean
+    private LiveUserIds liveUserIds;
+
+    @MockBean
+    private ItemRequestMatcher itemRequestMatcher;
+
+    @MockBean
+    private ItemRequestFeed itemRequestFeed;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void getUserById_shouldLoadTheUserOnce() {
+        User user = initUser(1L, "user");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertThat(userService.getUserById(1L)).isEqualTo(user);
+        assertThat(userService.getUserById(1L)).isEqualTo(user);
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void existsById_shouldCacheTheResult_untilTheUserIsCreated() {
+        User user = initUser(2L, "user");
+
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(false);
+        when(userRepository.save(user)).thenReturn(user);
+
+        assertThat(userService.existsById(1L)).isTrue();
+        assertThat(userService.existsById(1L)).isTrue();
+        assertThat(userService.existsById(2L)).isFalse();
+        assertThat(userService.existsById(2L)).isFalse();
+
+        userService.createUser(user);
+        when(userRepository.existsById(2L)).thenReturn(true);
+
+        assertThat(userService.existsById(2L)).isTrue();
+        verify(userRepository, times(1)).existsById(1L);
+        verify(userRepository, times(2)).existsById(2L);
+    }
+
+    @Test
+    void updateUser_shouldReplaceTheCachedUser() {
+        User user = initUser(1L, "user");
+        User updatedUser = initUser(1L, "updated");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(updatedUser)).thenReturn(updatedUser);
+
+        userService.getUserById(1L);
+        userService.updateUser(updatedUser);
+
+        assertThat(userService.getUserById(1L).getName()).isEqualTo("updated");
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void removeUserById_shouldEvictTheUser() {
+        User user = initUser(1L, "user");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        userService.getUserById(1L);
+        userService.existsById(1L);
+        userService.removeUserById(1L);
+
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThat(userService.existsById(1L)).isFalse();
+        userService.getUserById(1L);
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void removeUserById_shouldNotLeaveTheUser_loadedWhileTheRemovalRuns() throws InterruptedException {
+        User user = initUser(1L, "user");
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch loadReleased = new CountDownLatch(1);
+
+        when(userRepository.findById(1L)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            loadReleased.await();
+            return Optional.of(user);
+        });
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        Thread reader = new Thread(() -> userService.getUserById(1L));
+        reader.start();
+        loadStarted.await();
+
+        Thread remover = new Thread(() -> userService.removeUserById(1L));
+        remover.start();
+        while (remover.getState() == Thread.State.NEW || remover.getState() == Thread.State.RUNNABLE) {
+            Thread.onSpinWait();
+        }
+
+        loadReleased.countDown();
+        reader.join();
+        remover.join();
+
+        assertThat(cacheManager.getCache(CacheConfig.USERS).get(1L)).isNull();
+    }
+
+    private User initUser(Long id, String name) {
+        User user = new User();
+
+        user.setId(id);
+        user.setEmail("user@user.com");
+        user.setName(name);
+
+        return user;
+    }
+}
@@ -5,9 +5,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.yandex.practicum.shareit.booking.BookingRepository;
-import ru.yandex.practicum.shareit.item.CommentRepository;
 import ru.yandex.practicum.shareit.item.ItemRepository;
+import ru.yandex.practicum.shareit.item.ItemSearchIndex;
+import ru.yandex.practicum.shareit.request.ItemRequestFeed;
+import ru.yandex.practicum.shareit.request.ItemRequestMatcher;
 import ru.yandex.practicum.shareit.validator.NotFoundException;
 
 import java.util.Collections;
@@ -31,10 +32,16 @@ class UserServiceImplTest {
     private ItemRepository itemRepository;
 
     @Mock
-    private BookingRepository bookingRepository;
+    private ItemSearchIndex itemSearchIndex;
 
     @Mock
-    private CommentRepository commentRepository;
+    private LiveUserIds liveUserIds;
+
+    @Mock
+    private ItemRequestMatcher itemRequestMatcher;
+
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -87,6 +94,38 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findById(userId);
     }
 
+    @Test
+    void getUserById_shouldThrowAnException_withoutAQuery_ifUserIdIsAbsent() {
+        Long userId = 1L;
+
+        when(liveUserIds.isAbsent(userId)).thenReturn(true);
+
+        assertThatExceptionOfType(NotFoundException.class)
+                .isThrownBy(() -> userService.getUserById(userId));
+
+        verify(userRepository, never()).findById(userId);
+    }
+
+    @Test
+    void existsById_shouldReturnFalse_withoutAQuery_ifUserIdIsAbsent() {
+        Long userId = 1L;
+
+        when(liveUserIds.isAbsent(userId)).thenReturn(true);
+
+        assertThat(userService.existsById(userId)).isFalse();
+
+        verify(userRepository, never()).existsById(userId);
+    }
+
+    @Test
+    void existsById_shouldReturnWhetherTheUserExists() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        assertThat(userService.existsById(1L)).isTrue();
+        assertThat(userService.existsById(2L)).isFalse();
+    }
+
     @Test
     void createUser_shouldCreateAUser() {
         User user = initUser();
@@ -96,6 +135,7 @@ class UserServiceImplTest {
         assertThat(userService.createUser(user)).isEqualTo(user);
 
         verify(userRepository, times(1)).save(user);
+        verify(liveUserIds, times(1)).add(user.getId());
     }
 
     @Test
@@ -113,7 +153,7 @@ class UserServiceImplTest {
     }
 
     @Test
-    void removeUserById_shouldRemoveTheUser() {
+    void removeUserById_shouldHideTheUserAndTheUserItems() {
         Long userId = 1L;
 
         when(userRepository.existsById(userId)).thenReturn(true);
@@ -121,11 +161,12 @@ class UserServiceImplTest {
         userService.removeUserById(userId);
 
         verify(userRepository, times(1)).existsById(userId);
-        verify(bookingRepository, times(1)).deleteByItemOwnerId(userId);
-        verify(itemRepository, times(1)).deleteByOwnerId(userId);
-        verify(bookingRepository, times(1)).deleteByBookerId(userId);
-        verify(commentRepository, times(1)).deleteByAuthorId(userId);
-        verify(userRepository, times(1)).deleteById(userId);
+        verify(userRepository, times(1)).markDeletedById(userId);
+        verify(itemRepository, times(1)).markDeletedByOwnerId(userId);
+        verify(itemSearchIndex, times(1)).removeByOwnerId(userId);
+        verify(liveUserIds, times(1)).remove(userId);
+        verify(itemRequestMatcher, times(1)).removeByRequestorId(userId);
+        verify(itemRequestFeed, times(1)).removeByRequestorId(userId);
     }
 
     @Test
@@ -138,11 +179,9 @@ class UserServiceImplTest {
                 .isThrownBy(() -> userService.removeUserById(userId));
 
         verify(userRepository, times(1)).existsById(userId);
-        verify(bookingRepository, never()).deleteByItemOwnerId(userId);
-        verify(itemRepository, never()).deleteByOwnerId(userId);
-        verify(bookingRepository, never()).deleteByBookerId(userId);
-        verify(commentRepository, never()).deleteByAuthorId(userId);
-        verify(userRepository, never()).deleteById(userId);
+        verify(userRepository, never()).markDeletedById(userId);
+        verify(itemRepository, never()).markDeletedByOwnerId(userId);
+        verify(itemSearchIndex, never()).removeByOwnerId(userId);
     }
 
     private User initUser() {
@@ -0,0 +1,113 @@
+package ru.yandex.practicum.shareit.validator;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of turning a thrown NotFoundException into a 404 response
+ * legacy reproduces the previous handler: a stack trace is captured, logged and the body is concatenated,
+ * current uses the stackless exception, the rate-limited log and the preallocated JSON fragments
+ * The exception is thrown as deep in the stack as in a Spring MVC request and the log goes to a discarding appender
+ * Run with the main method
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class ErrorHandlerBenchmark {
+
+    private static final int STACK_DEPTH = 120;
+
+    private final ErrorHandler errorHandler = new ErrorHandler();
+    private final org.slf4j.Logger log = LoggerFactory.getLogger(ErrorHandler.class);
+
+    private long itemId;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ErrorHandlerBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("%d %5p [%t] %logger : %m%n%ex");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        Logger logger = loggerContext.getLogger(ErrorHandler.class);
+        logger.detachAndStopAllAppenders();
+        logger.setAdditive(false);
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.addAppender(appender);
+    }
+
+    @Benchmark
+    public int legacy() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            find(++itemId, STACK_DEPTH, true);
+        } catch (RuntimeException e) {
+            log.error(e.getMessage(), e);
+            response.setStatus(404);
+            response.setHeader("Content-Type", "application/json");
+            response.getOutputStream().print("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+        return response.getContentAsByteArray().length;
+    }
+
+    @Benchmark
+    public int current() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            find(++itemId, STACK_DEPTH, false);
+        } catch (NotFoundException e) {
+            errorHandler.handleNotFoundException(e, response);
+        }
+        return response.getContentAsByteArray().length;
+    }
+
+    private static long find(long id, int depth, boolean withStackTrace) {
+        if (depth > 0) {
+            return find(id, depth - 1, withStackTrace) + 1;
+        }
+
+        String message = String.format("Item with id %d does not exist", id);
+        throw withStackTrace ? new RuntimeException(message) : new NotFoundException(message);
+    }
+}
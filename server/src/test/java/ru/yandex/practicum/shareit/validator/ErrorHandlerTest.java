@@ -0,0 +1,42 @@
+package ru.yandex.practicum.shareit.validator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorHandlerTest {
+
+    private final ErrorHandler errorHandler = new ErrorHandler();
+
+    @Test
+    void handleNotFoundException_shouldWriteTheMessageAsJson() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        errorHandler.handleNotFoundException(new NotFoundException("User with id 1 does not exist"), response);
+
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsString()).isEqualTo("{\"error\": \"User with id 1 does not exist\"}");
+        assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void handleValidationException_shouldEscapeTheMessage() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        errorHandler.handleValidationException(new ValidationException("Unknown state: \"Ё\\\n"), response);
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"error\": \"Unknown state: \\\"Ё\\\\\\n\"}");
+    }
+
+    @Test
+    void notFoundException_shouldNotCaptureTheStackTrace() {
+        assertThat(new NotFoundException("Item with id 1 does not exist").getStackTrace()).isEmpty();
+    }
+}
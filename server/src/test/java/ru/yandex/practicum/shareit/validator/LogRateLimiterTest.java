@@ -0,0 +1,35 @@
+package ru.yandex.practicum.shareit.validator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final LogRateLimiter logRateLimiter = new LogRateLimiter(2, now::get);
+
+    @Test
+    void tryAcquire_shouldSuppressMessagesOverTheLimitOfTheSecond() {
+        assertThat(logRateLimiter.tryAcquire()).isZero();
+        assertThat(logRateLimiter.tryAcquire()).isZero();
+        assertThat(logRateLimiter.tryAcquire()).isEqualTo(-1);
+        assertThat(logRateLimiter.tryAcquire()).isEqualTo(-1);
+    }
+
+    @Test
+    void tryAcquire_shouldReportTheSuppressedMessages_inTheNextSecond() {
+        logRateLimiter.tryAcquire();
+        logRateLimiter.tryAcquire();
+        logRateLimiter.tryAcquire();
+        logRateLimiter.tryAcquire();
+
+        now.set(2_000);
+
+        assertThat(logRateLimiter.tryAcquire()).isEqualTo(2);
+        assertThat(logRateLimiter.tryAcquire()).isZero();
+        assertThat(logRateLimiter.tryAcquire()).isEqualTo(-1);
+    }
+}